@@ -0,0 +1,47 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkData {
+
+    private static final long SEED = 20230601L;
+    private static final int MAX_ITEM_WEIGHT = 100;
+    private static final int MAX_ITEM_COST = 100;
+
+    private BenchmarkData() {
+    }
+
+    static Random random() {
+        return new Random(SEED);
+    }
+
+    static InboundPackage inboundPackage(final Random random, final int itemCount, final int weightLimit, final int weightPrecision) {
+        final List<Item> items = new ArrayList<>(itemCount);
+        for (int index = 1; index <= itemCount; index++) {
+            items.add(new Item(index, weight(random, weightPrecision), BigDecimal.valueOf(1 + random.nextInt(MAX_ITEM_COST))));
+        }
+        return new InboundPackage(weightLimit, items);
+    }
+
+    static String line(final Random random, final int itemCount, final int weightLimit, final int weightPrecision) {
+        final StringBuilder line = new StringBuilder().append(weightLimit).append(" :");
+        for (int index = 1; index <= itemCount; index++) {
+            line.append(" (").append(index)
+                    .append(',').append(weight(random, weightPrecision).toPlainString())
+                    .append(",€").append(1 + random.nextInt(MAX_ITEM_COST))
+                    .append(')');
+        }
+        return line.toString();
+    }
+
+    private static BigDecimal weight(final Random random, final int weightPrecision) {
+        final long unit = BigDecimal.ONE.movePointRight(weightPrecision).longValueExact();
+        return BigDecimal.valueOf(unit + (long) (random.nextDouble() * (MAX_ITEM_WEIGHT - 1) * unit), weightPrecision);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.packer.impl.OutputEncoder;
+import com.mobiquity.packer.model.OptimizedPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FormatterBenchmark {
+
+    @Param({"0", "1", "5", "15"})
+    private int itemCount;
+
+    private OptimizedPackage optimizedPackage;
+    private OutputEncoder outputEncoder;
+
+    @Setup
+    public void setup() {
+        this.optimizedPackage = new OptimizedPackage(100, BenchmarkData.inboundPackage(BenchmarkData.random(), this.itemCount, 100, 2).items());
+        this.outputEncoder = OutputEncoder.newInstance(new DiscardingChannel());
+    }
+
+    @Benchmark
+    public String toText() {
+        return this.optimizedPackage.toText();
+    }
+
+    @Benchmark
+    public void encode() throws IOException {
+        this.outputEncoder.encode(this.optimizedPackage);
+        this.outputEncoder.newLine();
+    }
+
+    private static final class DiscardingChannel implements WritableByteChannel {
+
+        @Override
+        public int write(final ByteBuffer source) {
+            final int length = source.remaining();
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
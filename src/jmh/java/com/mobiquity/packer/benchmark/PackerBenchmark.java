@@ -0,0 +1,71 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.Packer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PackerBenchmark {
+
+    @Param({"100", "10000"})
+    private int batchSize;
+
+    @Param({"15"})
+    private int itemCount;
+
+    @Param({"100"})
+    private int weightLimit;
+
+    @Param({"0", "2"})
+    private int weightPrecision;
+
+    private Path input;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.input = Files.createTempFile("packer-benchmark", ".txt");
+        final Random random = BenchmarkData.random();
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(this.input, StandardCharsets.UTF_8)) {
+            for (int line = 0; line < this.batchSize; line++) {
+                writer.write(BenchmarkData.line(random, 1 + random.nextInt(this.itemCount), 1 + random.nextInt(this.weightLimit), this.weightPrecision));
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.input);
+    }
+
+    @Benchmark
+    public String pack() throws APIException {
+        return Packer.pack(this.input.toString());
+    }
+}
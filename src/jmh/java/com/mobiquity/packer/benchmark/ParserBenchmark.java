@@ -0,0 +1,50 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.ParserType;
+import com.mobiquity.packer.model.InboundPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserBenchmark {
+
+    @Param({"TEXT", "BYTE"})
+    private ParserType parserType;
+
+    @Param({"1", "5", "15"})
+    private int itemCount;
+
+    @Param({"0", "2"})
+    private int weightPrecision;
+
+    private InputParser inputParser;
+    private String line;
+
+    @Setup
+    public void setup() {
+        this.inputParser = InputParser.getInstance(this.parserType);
+        this.line = BenchmarkData.line(BenchmarkData.random(), this.itemCount, 100, this.weightPrecision);
+    }
+
+    @Benchmark
+    public InboundPackage parse() {
+        return this.inputParser.parse(this.line);
+    }
+}
@@ -0,0 +1,128 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.Packer;
+import com.mobiquity.packer.impl.ResumablePacker;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.metrics.impl.SummaryMetrics;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates a workload with {@link WorkloadGenerator} and packs it end to end again and again, reporting for every
+ * iteration the throughput, the peak heap, the GC time and the per-line latency percentiles of every stage and of whole
+ * lines. The peak heap is the largest total heap use sampled every {@value #HEAP_SAMPLE_MILLIS} ms, since the peaks of the
+ * separate heap pools are reached at different times and do not add up.
+ * Workloads with invalid lines are packed by {@link ResumablePacker}, all others by {@code Packer.pack}.
+ * <p>
+ * Usage: {@code SoakHarness [iterations=..] [file=..] [key=value ...]} with the workload keys of
+ * {@link WorkloadGenerator.Workload#from(Map)}. The generated file and its output are deleted at the end unless a
+ * {@code file} is given.
+ */
+public final class SoakHarness {
+
+    public static final int DEFAULT_ITERATIONS = 5;
+    public static final long HEAP_SAMPLE_MILLIS = 10;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double NANOS_PER_MICRO = 1_000d;
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+    private static final List<Stage> LINE_STAGES = List.of(Stage.PARSE, Stage.VALIDATE, Stage.SOLVE, Stage.FORMAT, Stage.LINE);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private SoakHarness() {
+    }
+
+    public static void main(final String[] args) throws IOException, APIException {
+        final Map<String, String> options = WorkloadGenerator.options(args, 0);
+        final int iterations = Integer.parseInt(options.getOrDefault("iterations", String.valueOf(DEFAULT_ITERATIONS)));
+        final boolean temporary = !options.containsKey("file");
+        final Path input = temporary ? Files.createTempFile("packer-soak", ".txt") : Path.of(options.get("file"));
+        final Path output = Path.of(input + ".out");
+        options.remove("iterations");
+        options.remove("file");
+
+        try {
+            final WorkloadGenerator.Workload workload = WorkloadGenerator.Workload.from(options);
+            final WorkloadGenerator.Stats stats = WorkloadGenerator.generate(input, workload);
+            System.out.println("Generated " + stats + " into " + input);
+
+            for (int iteration = 1; iteration <= iterations; iteration++) {
+                System.out.println("Iteration " + iteration + ": " + run(input, output, stats, workload.invalidRatio() > 0));
+            }
+        } finally {
+            if (temporary) {
+                Files.deleteIfExists(input);
+                Files.deleteIfExists(output);
+                Files.deleteIfExists(Path.of(output + ResumablePacker.ERRORS_SUFFIX));
+            }
+        }
+    }
+
+    private static String run(final Path input, final Path output, final WorkloadGenerator.Stats stats, final boolean faultTolerant)
+            throws IOException, APIException {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        final AtomicLong peakHeap = new AtomicLong(memory.getHeapMemoryUsage().getUsed());
+        final ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "soak-heap-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heapSampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, HEAP_SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        final long gcCountBefore = gcCount();
+        final long gcMillisBefore = gcMillis();
+        final SummaryMetrics metrics = SummaryMetrics.newInstance();
+
+        final long start = System.nanoTime();
+        try {
+            if (faultTolerant) {
+                ResumablePacker.newInstance(metrics, ResumablePacker.DEFAULT_CHECKPOINT_INTERVAL).pack(input, output);
+            } else {
+                try (final FileChannel channel = FileChannel.open(output,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    Packer.pack(input, channel, metrics);
+                }
+            }
+        } finally {
+            heapSampler.shutdownNow();
+        }
+        final long nanos = System.nanoTime() - start;
+        peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+
+        final StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "%.3f s, %.1f lines/s, %.2f MB/s, peak heap %.1f MB, %d GCs taking %d ms",
+                nanos / NANOS_PER_SECOND, stats.lines() * NANOS_PER_SECOND / nanos, stats.bytes() / BYTES_PER_MEGABYTE * NANOS_PER_SECOND / nanos,
+                peakHeap.get() / BYTES_PER_MEGABYTE, gcCount() - gcCountBefore, gcMillis() - gcMillisBefore));
+        for (final Stage stage : LINE_STAGES) {
+            report.append(String.format(Locale.ROOT, "%n  %-8s", stage));
+            for (final double percentile : PERCENTILES) {
+                report.append(String.format(Locale.ROOT, " p%s=%.1fus", percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile),
+                        metrics.percentileNanos(stage, percentile) / NANOS_PER_MICRO));
+            }
+        }
+        return report.toString();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.SolverType;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SolverBenchmark {
+
+    @Param({"KNAPSACK", "SUBSET_ENUMERATION", "SCRATCH_KNAPSACK", "VECTOR_KNAPSACK"})
+    private SolverType solverType;
+
+    @Param({"5", "15"})
+    private int itemCount;
+
+    @Param({"50", "100"})
+    private int weightLimit;
+
+    @Param({"0", "2"})
+    private int weightPrecision;
+
+    private PackageSolver packageSolver;
+    private InboundPackage inboundPackage;
+
+    @Setup
+    public void setup() {
+        this.packageSolver = PackageSolver.getInstance(this.solverType);
+        this.inboundPackage = BenchmarkData.inboundPackage(BenchmarkData.random(), this.itemCount, this.weightLimit, this.weightPrecision);
+    }
+
+    @Benchmark
+    public OptimizedPackage solve() {
+        return this.packageSolver.solve(this.inboundPackage);
+    }
+}
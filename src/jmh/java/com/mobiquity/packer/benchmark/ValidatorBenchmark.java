@@ -0,0 +1,58 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.packer.InputValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ValidatorBenchmark {
+
+    @Param({"1", "5", "15"})
+    private int itemCount;
+
+    @Param({"0", "2"})
+    private int weightPrecision;
+
+    private InputValidator inputValidator;
+    private String line;
+    private String items;
+
+    @Setup
+    public void setup() {
+        this.inputValidator = InputValidator.getInstance();
+        this.line = BenchmarkData.line(BenchmarkData.random(), this.itemCount, 100, this.weightPrecision);
+        this.items = this.line.substring(this.line.indexOf('('));
+    }
+
+    @Benchmark
+    public Matcher packageLineMatcher() {
+        return this.inputValidator.createPackageLineMatcher(this.line);
+    }
+
+    @Benchmark
+    public int itemLineMatcher() {
+        final Matcher matcher = this.inputValidator.createItemLineMatcher(this.items);
+        int found = 0;
+        while (matcher.find()) {
+            found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,157 @@
+package com.mobiquity.packer.benchmark;
+
+import com.mobiquity.packer.PackerLimits;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Writes a reproducible package file in the {@code TextInputParser} format. The same {@link Workload} always yields the
+ * same bytes, and lines are streamed to disk one by one, so files of many gigabytes take no more memory than small ones.
+ * <p>
+ * Usage: {@code WorkloadGenerator <output> [key=value ...]} with the keys of {@link Workload#from(Map)}.
+ */
+public final class WorkloadGenerator {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int RECENT_LINES = 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final int INVALID_KINDS = 5;
+
+    private WorkloadGenerator() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: WorkloadGenerator <output> [seed=..] [lines=..] [bytes=..] [items=..] [precision=..] [duplicates=..] [invalid=..]");
+            System.exit(2);
+        }
+        final Map<String, String> options = options(args, 1);
+        System.out.println(generate(Path.of(args[0]), Workload.from(options)));
+    }
+
+    public static Stats generate(final Path output, final Workload workload) throws IOException {
+        final Random random = new Random(workload.seed());
+        final String[] recentLines = new String[RECENT_LINES];
+        final boolean[] recentInvalid = new boolean[RECENT_LINES];
+        long lines = 0;
+        long bytes = 0;
+        long invalidLines = 0;
+        long duplicateLines = 0;
+
+        try (final OutputStream stream = new BufferedOutputStream(Files.newOutputStream(output), BUFFER_SIZE)) {
+            while ((workload.lines() == 0 || lines < workload.lines()) && (workload.bytes() == 0 || bytes < workload.bytes())) {
+                final String line;
+                final boolean invalid;
+                if (lines > 0 && random.nextDouble() < workload.duplicateRatio()) {
+                    final int recent = random.nextInt((int) Math.min(lines, RECENT_LINES));
+                    line = recentLines[recent];
+                    invalid = recentInvalid[recent];
+                    duplicateLines++;
+                } else {
+                    invalid = random.nextDouble() < workload.invalidRatio();
+                    line = invalid ? invalidLine(random, workload) : validLine(random, workload);
+                }
+                if (invalid) {
+                    invalidLines++;
+                }
+                recentLines[(int) (lines % RECENT_LINES)] = line;
+                recentInvalid[(int) (lines % RECENT_LINES)] = invalid;
+
+                final byte[] encoded = line.getBytes(StandardCharsets.UTF_8);
+                stream.write(encoded);
+                stream.write(LINE_FEED);
+                bytes += encoded.length + 1;
+                lines++;
+            }
+        }
+        return new Stats(lines, bytes, invalidLines, duplicateLines);
+    }
+
+    /**
+     * Parses {@code key=value} arguments starting at {@code from}.
+     */
+    static Map<String, String> options(final String[] args, final int from) {
+        final Map<String, String> options = new HashMap<>();
+        for (int i = from; i < args.length; i++) {
+            final int separator = args[i].indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + args[i]);
+            }
+            options.put(args[i].substring(0, separator), args[i].substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static String validLine(final Random random, final Workload workload) {
+        return BenchmarkData.line(random, 1 + random.nextInt(workload.maxItems()), 1 + random.nextInt(workload.limits().maxPackageWeight()),
+                workload.weightPrecision());
+    }
+
+    /**
+     * One line breaking one of the rules checked by {@code TextInputValidator}.
+     */
+    private static String invalidLine(final Random random, final Workload workload) {
+        final PackerLimits limits = workload.limits();
+        return switch (random.nextInt(INVALID_KINDS)) {
+            case 0 -> BenchmarkData.line(random, 1 + random.nextInt(workload.maxItems()), limits.maxPackageWeight() + 1 + random.nextInt(100),
+                    workload.weightPrecision());
+            case 1 -> validLine(random, workload).replaceFirst("\\(1,[^,]*,", "(1," + limits.maxItemWeight().add(limits.maxItemWeight()).toPlainString() + ",");
+            case 2 -> validLine(random, workload).replaceFirst("€\\d+\\)", "€" + limits.maxItemCost().add(limits.maxItemCost()).toPlainString() + ")");
+            case 3 -> validLine(random, workload).replaceFirst("€", "");
+            default -> BenchmarkData.line(random, limits.maxItems() + 1, 1 + random.nextInt(limits.maxPackageWeight()), workload.weightPrecision());
+        };
+    }
+
+    /**
+     * Shape of a generated file. Generation stops after {@code lines} lines or once {@code bytes} bytes are written,
+     * whichever comes first, where zero means no limit. Each line has up to {@code maxItems} items whose weights have
+     * {@code weightPrecision} decimals; a share of lines repeats a recent line or breaks a validation rule.
+     */
+    public record Workload(long seed, long lines, long bytes, int maxItems, int weightPrecision, double duplicateRatio,
+                           double invalidRatio, PackerLimits limits) {
+
+        public static final long DEFAULT_SEED = 20230601L;
+        public static final long DEFAULT_LINES = 1_000_000;
+
+        public Workload {
+            if (lines < 0 || bytes < 0 || lines == 0 && bytes == 0) {
+                throw new IllegalArgumentException("Either a line count or a byte size is required");
+            }
+            if (maxItems <= 0 || maxItems > limits.maxItems() || weightPrecision < 0) {
+                throw new IllegalArgumentException("Items must be within 1.." + limits.maxItems() + " and precision non-negative");
+            }
+            if (duplicateRatio < 0 || duplicateRatio > 1 || invalidRatio < 0 || invalidRatio > 1) {
+                throw new IllegalArgumentException("Ratios must be within 0..1");
+            }
+        }
+
+        /**
+         * Reads {@code seed}, {@code lines}, {@code bytes}, {@code items}, {@code precision}, {@code duplicates} and
+         * {@code invalid}, with defaults for the missing ones, and the challenge limits.
+         */
+        public static Workload from(final Map<String, String> options) {
+            final PackerLimits limits = PackerLimits.challenge();
+            final boolean sized = options.containsKey("bytes") && !options.containsKey("lines");
+            return new Workload(
+                    Long.parseLong(options.getOrDefault("seed", String.valueOf(DEFAULT_SEED))),
+                    sized ? 0 : Long.parseLong(options.getOrDefault("lines", String.valueOf(DEFAULT_LINES))),
+                    Long.parseLong(options.getOrDefault("bytes", "0")),
+                    Integer.parseInt(options.getOrDefault("items", String.valueOf(limits.maxItems()))),
+                    Integer.parseInt(options.getOrDefault("precision", "2")),
+                    Double.parseDouble(options.getOrDefault("duplicates", "0")),
+                    Double.parseDouble(options.getOrDefault("invalid", "0")),
+                    limits);
+        }
+    }
+
+    public record Stats(long lines, long bytes, long invalidLines, long duplicateLines) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.mobiquity.packer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+public enum ExecutorType {
+    FORK_JOIN {
+        @Override
+        public ExecutorService create(final int parallelism) {
+            return new ForkJoinPool(parallelism);
+        }
+    },
+    FIXED_THREAD_POOL {
+        @Override
+        public ExecutorService create(final int parallelism) {
+            return Executors.newFixedThreadPool(parallelism);
+        }
+    },
+    VIRTUAL_THREADS {
+        @Override
+        public ExecutorService create(final int parallelism) {
+            try {
+                return (ExecutorService) MethodHandles.publicLookup()
+                        .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                        .invoke();
+            } catch (final NoSuchMethodException | IllegalAccessException e) {
+                throw new UnsupportedOperationException("Virtual threads are not available on Java " + Runtime.version().feature(), e);
+            } catch (final Throwable e) {
+                throw new IllegalStateException("Virtual thread executor could not be created", e);
+            }
+        }
+    };
+
+    public abstract ExecutorService create(int parallelism);
+}
@@ -1,14 +1,46 @@
 package com.mobiquity.packer;
 
+import com.mobiquity.packer.impl.ByteInputParser;
+import com.mobiquity.packer.impl.MeteredInputParser;
 import com.mobiquity.packer.impl.TextInputParser;
+import com.mobiquity.packer.metrics.PackerMetrics;
 import com.mobiquity.packer.model.InboundPackage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+
 public interface InputParser {
 
     static InputParser getDefaultInstance() {
-        return TextInputParser.newInstance(InputValidator.getInstance());
+        return getInstance(ParserType.fromSystemProperty());
+    }
+
+    static InputParser getDefaultInstance(final PackerMetrics metrics) {
+        final InputParser inputParser = getInstance(ParserType.fromSystemProperty(), InputValidator.getInstance(metrics));
+        return metrics.isEnabled() ? MeteredInputParser.newInstance(inputParser, metrics) : inputParser;
+    }
+
+    static InputParser getInstance(final ParserType parserType) {
+        return getInstance(parserType, InputValidator.getInstance());
+    }
+
+    static InputParser getInstance(final ParserType parserType, final InputValidator inputValidator) {
+        return switch (parserType) {
+            case TEXT -> TextInputParser.newInstance(inputValidator);
+            case BYTE -> ByteInputParser.newInstance(inputValidator);
+            case BINARY -> throw new IllegalArgumentException("Binary packages have no line form, read them with a PackageReader");
+        };
     }
 
     InboundPackage parse(final String input);
 
+    default Stream<InboundPackage> parse(final Path path) throws IOException {
+        return Files.lines(path)
+                .filter(Objects::nonNull)
+                .map(this::parse);
+    }
+
 }
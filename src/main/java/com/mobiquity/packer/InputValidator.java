@@ -1,6 +1,8 @@
 package com.mobiquity.packer;
 
+import com.mobiquity.packer.impl.MeteredInputValidator;
 import com.mobiquity.packer.impl.TextInputValidator;
+import com.mobiquity.packer.metrics.PackerMetrics;
 
 import java.math.BigDecimal;
 import java.util.regex.Matcher;
@@ -8,13 +10,24 @@ import java.util.regex.Matcher;
 public interface InputValidator {
 
     static InputValidator getInstance() {
-        return TextInputValidator.getDefaultInstance();
+        return getInstance(PackerLimits.fromSystemProperties());
+    }
+
+    static InputValidator getInstance(final PackerLimits limits) {
+        return TextInputValidator.newInstance(limits);
+    }
+
+    static InputValidator getInstance(final PackerMetrics metrics) {
+        final InputValidator inputValidator = getInstance();
+        return metrics.isEnabled() ? MeteredInputValidator.newInstance(inputValidator, metrics) : inputValidator;
     }
 
     Matcher createPackageLineMatcher(String line);
 
     Matcher createItemLineMatcher(String items);
 
+    int maxItems();
+
     void validatePackageWeightLimit(final int weight);
 
     void validateItemWeightLimit(BigDecimal weight, int itemIndex);
@@ -0,0 +1,36 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.packer.impl.BinaryInputParser;
+import com.mobiquity.packer.impl.MeteredPackageReader;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Reads all packages of a file. Unlike {@link InputParser}, which handles one line at a time, a reader may need the whole
+ * file, so it is the only way to read {@link ParserType#BINARY} input.
+ */
+@FunctionalInterface
+public interface PackageReader {
+
+    static PackageReader getDefaultInstance() {
+        return getInstance(ParserType.fromSystemProperty(), PackerMetrics.noop());
+    }
+
+    static PackageReader getDefaultInstance(final PackerMetrics metrics) {
+        return getInstance(ParserType.fromSystemProperty(), metrics);
+    }
+
+    static PackageReader getInstance(final ParserType parserType, final PackerMetrics metrics) {
+        final PackageReader packageReader = switch (parserType) {
+            case TEXT, BYTE -> InputParser.getInstance(parserType, InputValidator.getInstance(metrics))::parse;
+            case BINARY -> BinaryInputParser.getInstance();
+        };
+        return metrics.isEnabled() ? MeteredPackageReader.newInstance(packageReader, metrics) : packageReader;
+    }
+
+    Stream<InboundPackage> read(Path path) throws IOException;
+}
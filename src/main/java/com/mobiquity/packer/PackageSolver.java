@@ -1,15 +1,79 @@
 package com.mobiquity.packer;
 
+import com.mobiquity.packer.impl.AdaptiveSolver;
+import com.mobiquity.packer.impl.ApproximateSolver;
+import com.mobiquity.packer.impl.BudgetedSolver;
+import com.mobiquity.packer.impl.CachingSolver;
 import com.mobiquity.packer.impl.KnapsackSolver;
+import com.mobiquity.packer.impl.LargeInstanceSolver;
+import com.mobiquity.packer.impl.MeteredPackageSolver;
+import com.mobiquity.packer.impl.ParallelKnapsackSolver;
+import com.mobiquity.packer.impl.PreprocessingSolver;
+import com.mobiquity.packer.impl.ScratchKnapsackSolver;
+import com.mobiquity.packer.impl.SubsetEnumerationSolver;
+import com.mobiquity.packer.impl.VectorKnapsackSolver;
+import com.mobiquity.packer.metrics.PackerMetrics;
 import com.mobiquity.packer.model.InboundPackage;
 import com.mobiquity.packer.model.OptimizedPackage;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 public interface PackageSolver {
 
+    String CACHE_SIZE_SYSTEM_PROPERTY = "packer.cache.size";
+    String PREPROCESS_SYSTEM_PROPERTY = "packer.preprocess";
+    String MEMORY_BUDGET_SYSTEM_PROPERTY = "packer.memory.budget";
+
     static PackageSolver getDefaultInstance() {
-        return KnapsackSolver.getInstance();
+        return getDefaultInstance(PackerMetrics.noop());
+    }
+
+    static PackageSolver getDefaultInstance(final PackerMetrics metrics) {
+        PackageSolver packageSolver = getInstance(SolverType.fromSystemProperty(), metrics);
+
+        final Long cellBudget = Long.getLong(BudgetedSolver.CELL_BUDGET_SYSTEM_PROPERTY);
+        if (cellBudget != null) {
+            packageSolver = BudgetedSolver.newInstance(packageSolver, ApproximateSolver.getInstance(), cellBudget);
+        }
+
+        if (Boolean.getBoolean(PREPROCESS_SYSTEM_PROPERTY)) {
+            packageSolver = PreprocessingSolver.newInstance(packageSolver);
+        }
+
+        final int cacheSize = Integer.getInteger(CACHE_SIZE_SYSTEM_PROPERTY, 0);
+        if (cacheSize > 0) {
+            packageSolver = CachingSolver.newInstance(packageSolver, cacheSize);
+        }
+
+        return metrics.isEnabled() ? MeteredPackageSolver.newInstance(packageSolver, metrics) : packageSolver;
+    }
+
+    static PackageSolver getInstance(final SolverType solverType) {
+        return getInstance(solverType, PackerMetrics.noop());
+    }
+
+    static PackageSolver getInstance(final SolverType solverType, final PackerMetrics metrics) {
+        return switch (solverType) {
+            case KNAPSACK -> KnapsackSolver.newInstance(metrics, memoryBudget());
+            case SUBSET_ENUMERATION -> SubsetEnumerationSolver.getInstance();
+            case LARGE_INSTANCE -> LargeInstanceSolver.getInstance();
+            case SCRATCH_KNAPSACK -> ScratchKnapsackSolver.newInstance(metrics, memoryBudget());
+            case VECTOR_KNAPSACK -> VectorKnapsackSolver.newInstance(metrics, memoryBudget());
+            case PARALLEL_KNAPSACK -> ParallelKnapsackSolver.newInstance(metrics, memoryBudget());
+            case APPROXIMATE -> ApproximateSolver.getInstance();
+            case ADAPTIVE -> AdaptiveSolver.newInstance(metrics);
+        };
+    }
+
+    private static long memoryBudget() {
+        return Long.getLong(MEMORY_BUDGET_SYSTEM_PROPERTY, KnapsackSolver.DEFAULT_MEMORY_BUDGET);
     }
 
     OptimizedPackage solve(InboundPackage inboundPackage);
 
+    default CompletableFuture<OptimizedPackage> solveAsync(final InboundPackage inboundPackage, final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> this.solve(inboundPackage), executor);
+    }
+
 }
@@ -0,0 +1,96 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link Flow.Processor} that solves inbound packages on an executor and publishes the optimized packages in arrival
+ * order. At most {@code maxInFlight} packages are requested from upstream before their results have been published,
+ * and publishing blocks while a downstream subscriber's buffer is full. The first failure cancels the upstream
+ * subscription and closes the processor with its cause; packages arriving or solved after it are dropped.
+ */
+public final class PackageSolverProcessor extends SubmissionPublisher<OptimizedPackage>
+        implements Flow.Processor<InboundPackage, OptimizedPackage> {
+
+    public static PackageSolverProcessor newInstance(final PackageSolver packageSolver, final Executor executor, final int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Packages in flight must be positive: " + maxInFlight);
+        }
+        return new PackageSolverProcessor(packageSolver, executor, maxInFlight);
+    }
+
+    private final PackageSolver packageSolver;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private Flow.Subscription subscription;
+    private volatile CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+    private PackageSolverProcessor(final PackageSolver packageSolver, final Executor executor, final int maxInFlight) {
+        super(executor, Flow.defaultBufferSize());
+        this.packageSolver = packageSolver;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscription.request(this.maxInFlight);
+    }
+
+    @Override
+    public void onNext(final InboundPackage inboundPackage) {
+        if (this.failure.get() != null) {
+            return;
+        }
+        final CompletableFuture<OptimizedPackage> result = this.packageSolver.solveAsync(inboundPackage, this.executor);
+
+        this.tail = this.tail
+                .thenCombine(result, (previous, optimizedPackage) -> optimizedPackage)
+                .thenAccept(optimizedPackage -> {
+                    if (this.failure.get() == null) {
+                        this.submit(optimizedPackage);
+                        this.subscription.request(1);
+                    }
+                })
+                .exceptionally(e -> {
+                    this.fail(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    return null;
+                });
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        this.tail.thenRun(() -> this.fail(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        this.tail.thenRun(() -> {
+            if (this.failure.get() == null) {
+                this.close();
+            }
+        });
+    }
+
+    private void fail(final Throwable throwable) {
+        if (this.failure.compareAndSet(null, throwable)) {
+            this.subscription.cancel();
+            this.closeExceptionally(throwable);
+        }
+    }
+}
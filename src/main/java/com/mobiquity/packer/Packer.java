@@ -1,49 +1,173 @@
 package com.mobiquity.packer;
 
 import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.impl.OutputEncoder;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
 import com.mobiquity.packer.model.InboundPackage;
 import com.mobiquity.packer.model.OptimizedPackage;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 
 public final class Packer {
 
+    static final String LINE_SEPARATOR = "\n";
+
     private Packer() {
     }
 
     public static String pack(final String filePath) throws APIException {
+        final StringWriter output = new StringWriter();
+        pack(filePath, output, PackerMetrics.getDefaultInstance());
+        return output.toString();
+    }
+
+    public static void pack(final Path input, final OutputStream output) throws APIException {
+        pack(input, Channels.newChannel(output), PackerMetrics.getDefaultInstance());
         try {
-            return pack(toPackageListFrom(filePath));
-        } catch (final Exception e) {
-            throw new APIException("Exception has been occurred while processing the file" + filePath, e);
+            output.flush();
+        } catch (final IOException e) {
+            throw new APIException("Exception has been occurred while processing the file" + input, e);
         }
     }
 
+    public static void pack(final Path input, final WritableByteChannel output) throws APIException {
+        pack(input, output, PackerMetrics.getDefaultInstance());
+    }
+
+    /**
+     * Encodes the output with a reusable {@link OutputEncoder}, without building a string per line.
+     */
+    public static void pack(final Path input, final WritableByteChannel output, final PackerMetrics metrics) throws APIException {
+        final OutputEncoder encoder = OutputEncoder.newInstance(output);
+        process(input.toString(), optimizedPackages -> encodeTo(encoder, optimizedPackages, metrics), metrics);
+    }
+
+    public static void pack(final Path input, final Writer output) throws APIException {
+        pack(input.toString(), output, PackerMetrics.getDefaultInstance());
+    }
+
+    public static void pack(final Path input, final Writer output, final PackerMetrics metrics) throws APIException {
+        pack(input.toString(), output, metrics);
+    }
+
+    public static CompletableFuture<Void> packAsync(final Path input, final Writer output, final Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                pack(input, output);
+            } catch (final APIException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
     public static String pack(final List<InboundPackage> inboundPackages) {
         final PackageSolver packageSolver = PackageSolver.getDefaultInstance();
 
         return inboundPackages.stream()
                 .map(packageSolver::solve)
                 .map(OptimizedPackage::toText)
-                .collect(Collectors.joining("\n"));
+                .collect(Collectors.joining(LINE_SEPARATOR));
+    }
+
+    public static Stream<OptimizedPackage> packAsStream(final Stream<String> lines) {
+        final InputParser inputParser = InputParser.getDefaultInstance();
+        final PackageSolver packageSolver = PackageSolver.getDefaultInstance();
+
+        return lines.filter(Objects::nonNull)
+                .map(inputParser::parse)
+                .map(packageSolver::solve);
     }
 
+    private static void pack(final String filePath, final Writer output, final PackerMetrics metrics) throws APIException {
+        process(filePath, optimizedPackages -> writeTo(output, optimizedPackages, metrics), metrics);
+    }
+
+    private static void process(final String filePath, final PackageSink sink, final PackerMetrics metrics) throws APIException {
+        final PackageReader packageReader = PackageReader.getDefaultInstance(metrics);
+        final PackageSolver packageSolver = PackageSolver.getDefaultInstance(metrics);
+        final long start = System.nanoTime();
+
+        try (final Stream<InboundPackage> inboundPackages = packageReader.read(Path.of(filePath))) {
+            sink.accept(inboundPackages.map(packageSolver::solve).iterator());
+        } catch (final Exception e) {
+            throw new APIException("Exception has been occurred while processing the file" + filePath, e);
+        } finally {
+            metrics.recordLatency(Stage.RUN, System.nanoTime() - start);
+            metrics.runCompleted();
+        }
+    }
 
-    private static List<InboundPackage> toPackageListFrom(final String filename) throws IOException {
-        try (final Stream<String> lines = Files.lines(Path.of(filename))) {
+    private static void writeTo(final Writer output, final Iterator<OptimizedPackage> optimizedPackages, final PackerMetrics metrics)
+            throws IOException {
+        final boolean metered = metrics.isEnabled();
+        // Lines are read and solved lazily by the iterator, so a line starts where the previous one was written.
+        long lineStart = metered ? System.nanoTime() : 0;
+        boolean firstLine = true;
+        while (optimizedPackages.hasNext()) {
+            final OptimizedPackage optimizedPackage = optimizedPackages.next();
+            if (!firstLine) {
+                output.write(LINE_SEPARATOR);
+            }
 
-            final InputParser inputParser = InputParser.getDefaultInstance();
+            final long start = metered ? System.nanoTime() : 0;
+            output.write(optimizedPackage.toText());
+            if (metered) {
+                final long end = System.nanoTime();
+                metrics.recordLatency(Stage.FORMAT, end - start);
+                metrics.recordLatency(Stage.LINE, end - lineStart);
+                lineStart = end;
+            }
 
-            return lines.filter(Objects::nonNull)
-                    .map(inputParser::parse)
-                    .toList();
+            firstLine = false;
         }
+        output.flush();
+    }
+
+    private static void encodeTo(final OutputEncoder encoder, final Iterator<OptimizedPackage> optimizedPackages, final PackerMetrics metrics)
+            throws IOException {
+        final boolean metered = metrics.isEnabled();
+        // Lines are read and solved lazily by the iterator, so a line starts where the previous one was written.
+        long lineStart = metered ? System.nanoTime() : 0;
+        boolean firstLine = true;
+        while (optimizedPackages.hasNext()) {
+            final OptimizedPackage optimizedPackage = optimizedPackages.next();
+            if (!firstLine) {
+                encoder.newLine();
+            }
+
+            final long start = metered ? System.nanoTime() : 0;
+            encoder.encode(optimizedPackage);
+            if (metered) {
+                final long end = System.nanoTime();
+                metrics.recordLatency(Stage.FORMAT, end - start);
+                metrics.recordLatency(Stage.LINE, end - lineStart);
+                lineStart = end;
+            }
+
+            firstLine = false;
+        }
+        encoder.flush();
+    }
+
+    @FunctionalInterface
+    private interface PackageSink {
+
+        void accept(Iterator<OptimizedPackage> optimizedPackages) throws IOException;
     }
 }
@@ -0,0 +1,63 @@
+package com.mobiquity.packer;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+public record PackerLimits(int maxItems, int maxPackageWeight, BigDecimal maxItemWeight, BigDecimal maxItemCost) {
+
+    public static final String SYSTEM_PROPERTY = "packer.limits";
+
+    private static final PackerLimits CHALLENGE = new PackerLimits(15, 100, new BigDecimal(100), new BigDecimal(100));
+    private static final PackerLimits LARGE = new PackerLimits(100_000, 10_000_000, new BigDecimal(10_000_000), new BigDecimal(1_000_000_000));
+
+    public PackerLimits {
+        if (maxItems <= 0 || maxPackageWeight <= 0 || maxItemWeight.signum() <= 0 || maxItemCost.signum() <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+    }
+
+    public static PackerLimits challenge() {
+        return CHALLENGE;
+    }
+
+    public static PackerLimits large() {
+        return LARGE;
+    }
+
+    public static PackerLimits fromSystemProperties() {
+        final String mode = System.getProperty(SYSTEM_PROPERTY, "CHALLENGE").trim().toUpperCase(Locale.ROOT);
+        PackerLimits limits = switch (mode) {
+            case "", "CHALLENGE" -> CHALLENGE;
+            case "LARGE" -> LARGE;
+            default -> throw new IllegalArgumentException("Unknown limits: " + mode);
+        };
+
+        limits = limits.withMaxItems(Integer.getInteger(SYSTEM_PROPERTY + ".maxItems", limits.maxItems));
+        limits = limits.withMaxPackageWeight(Integer.getInteger(SYSTEM_PROPERTY + ".maxPackageWeight", limits.maxPackageWeight));
+        final String maxItemWeight = System.getProperty(SYSTEM_PROPERTY + ".maxItemWeight");
+        if (maxItemWeight != null) {
+            limits = limits.withMaxItemWeight(new BigDecimal(maxItemWeight.trim()));
+        }
+        final String maxItemCost = System.getProperty(SYSTEM_PROPERTY + ".maxItemCost");
+        if (maxItemCost != null) {
+            limits = limits.withMaxItemCost(new BigDecimal(maxItemCost.trim()));
+        }
+        return limits;
+    }
+
+    public PackerLimits withMaxItems(final int maxItems) {
+        return new PackerLimits(maxItems, this.maxPackageWeight, this.maxItemWeight, this.maxItemCost);
+    }
+
+    public PackerLimits withMaxPackageWeight(final int maxPackageWeight) {
+        return new PackerLimits(this.maxItems, maxPackageWeight, this.maxItemWeight, this.maxItemCost);
+    }
+
+    public PackerLimits withMaxItemWeight(final BigDecimal maxItemWeight) {
+        return new PackerLimits(this.maxItems, this.maxPackageWeight, maxItemWeight, this.maxItemCost);
+    }
+
+    public PackerLimits withMaxItemCost(final BigDecimal maxItemCost) {
+        return new PackerLimits(this.maxItems, this.maxPackageWeight, this.maxItemWeight, maxItemCost);
+    }
+}
@@ -0,0 +1,180 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Parses and solves chunks of consecutive lines on an executor while the calling thread reads the raw lines and writes the
+ * results in the original line order. At most {@code maxChunksInFlight} chunks are submitted but not yet written.
+ * {@link ParserType#BINARY} input has no line form, so it is read through the {@link PackageReader} on the calling thread
+ * and only solved on the executor.
+ */
+public final class ParallelPacker implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    public static ParallelPacker newInstance(final ExecutorType executorType, final int parallelism) {
+        final ExecutorService executor = executorType.create(parallelism);
+        return new ParallelPacker(executor, executor, DEFAULT_CHUNK_SIZE, parallelism * 2);
+    }
+
+    public static ParallelPacker newInstance(final Executor executor, final int chunkSize, final int maxChunksInFlight) {
+        if (chunkSize <= 0 || maxChunksInFlight <= 0) {
+            throw new IllegalArgumentException("Chunk size and chunks in flight must be positive");
+        }
+        return new ParallelPacker(executor, null, chunkSize, maxChunksInFlight);
+    }
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final ParserType parserType;
+    private final PackageSolver packageSolver;
+
+    private ParallelPacker(final Executor executor, final ExecutorService ownedExecutor, final int chunkSize, final int maxChunksInFlight) {
+        this.executor = Objects.requireNonNull(executor);
+        this.ownedExecutor = ownedExecutor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.parserType = ParserType.fromSystemProperty();
+        this.packageSolver = PackageSolver.getDefaultInstance();
+    }
+
+    public String pack(final String filePath) throws APIException {
+        final StringWriter output = new StringWriter();
+        this.pack(Path.of(filePath), output);
+        return output.toString();
+    }
+
+    public void pack(final Path input, final Writer output) throws APIException {
+        try {
+            if (this.parserType == ParserType.BINARY) {
+                this.packPackages(input, output);
+            } else {
+                this.packLines(input, output);
+            }
+        } catch (final Exception e) {
+            throw new APIException("Exception has been occurred while processing the file" + input, unwrap(e));
+        }
+    }
+
+    public String pack(final List<InboundPackage> inboundPackages) {
+        final StringWriter output = new StringWriter();
+        try {
+            this.process(inboundPackages.iterator(), this::solvePackage, output);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return output.toString();
+    }
+
+    @Override
+    public void close() {
+        if (this.ownedExecutor != null) {
+            this.ownedExecutor.shutdown();
+        }
+    }
+
+    private void packLines(final Path input, final Writer output) throws IOException, InterruptedException, ExecutionException {
+        final InputParser inputParser = InputParser.getInstance(this.parserType);
+        try (final Stream<String> lines = Files.lines(input)) {
+            this.process(lines.iterator(), line -> this.solvePackage(inputParser.parse(line)), output);
+        }
+    }
+
+    private void packPackages(final Path input, final Writer output) throws IOException, InterruptedException, ExecutionException {
+        try (final Stream<InboundPackage> inboundPackages = PackageReader.getInstance(this.parserType, PackerMetrics.noop()).read(input)) {
+            this.process(inboundPackages.iterator(), this::solvePackage, output);
+        }
+    }
+
+    private String solvePackage(final InboundPackage inboundPackage) {
+        return this.packageSolver.solve(inboundPackage).toText();
+    }
+
+    private <T> void process(final Iterator<T> source, final Function<T, String> task, final Writer output)
+            throws IOException, InterruptedException, ExecutionException {
+        final Deque<CompletableFuture<String[]>> inFlight = new ArrayDeque<>(this.maxChunksInFlight);
+        boolean firstLine = true;
+
+        try {
+            while (source.hasNext()) {
+                if (inFlight.size() == this.maxChunksInFlight) {
+                    firstLine = write(output, inFlight.removeFirst().get(), firstLine);
+                }
+                final List<T> chunk = this.nextChunk(source);
+                inFlight.addLast(CompletableFuture.supplyAsync(() -> solveChunk(chunk, task), this.executor));
+            }
+            while (!inFlight.isEmpty()) {
+                firstLine = write(output, inFlight.removeFirst().get(), firstLine);
+            }
+            output.flush();
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> List<T> nextChunk(final Iterator<T> source) {
+        final List<T> chunk = new ArrayList<>(this.chunkSize);
+        while (chunk.size() < this.chunkSize && source.hasNext()) {
+            chunk.add(source.next());
+        }
+        return chunk;
+    }
+
+    private static <T> String[] solveChunk(final List<T> chunk, final Function<T, String> task) {
+        final String[] texts = new String[chunk.size()];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = task.apply(chunk.get(i));
+        }
+        return texts;
+    }
+
+    private static boolean write(final Writer output, final String[] texts, final boolean firstLine) throws IOException {
+        boolean first = firstLine;
+        for (final String text : texts) {
+            if (!first) {
+                output.write(Packer.LINE_SEPARATOR);
+            }
+            output.write(text);
+            first = false;
+        }
+        return first;
+    }
+
+    private static Exception unwrap(final Exception e) {
+        if (e instanceof ExecutionException && e.getCause() instanceof Exception cause) {
+            return cause;
+        }
+        return e;
+    }
+}
@@ -0,0 +1,19 @@
+package com.mobiquity.packer;
+
+import java.util.Locale;
+
+public enum ParserType {
+    TEXT,
+    BYTE,
+    BINARY;
+
+    public static final String SYSTEM_PROPERTY = "packer.parser";
+
+    public static ParserType fromSystemProperty() {
+        final String value = System.getProperty(SYSTEM_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return TEXT;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
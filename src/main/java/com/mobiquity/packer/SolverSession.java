@@ -0,0 +1,32 @@
+package com.mobiquity.packer;
+
+import com.mobiquity.packer.impl.KnapsackSession;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+/**
+ * A package that is changed item by item and solved after each change, returning the same {@link OptimizedPackage} as
+ * solving the current package from scratch.
+ */
+public interface SolverSession {
+
+    static SolverSession open(final InboundPackage inboundPackage) {
+        return open(inboundPackage, PackerMetrics.noop());
+    }
+
+    static SolverSession open(final InboundPackage inboundPackage, final PackerMetrics metrics) {
+        return KnapsackSession.newInstance(inboundPackage, metrics);
+    }
+
+    InboundPackage inboundPackage();
+
+    void addItem(Item item);
+
+    boolean removeItem(int index);
+
+    void setWeightLimit(int weightLimit);
+
+    OptimizedPackage solve();
+}
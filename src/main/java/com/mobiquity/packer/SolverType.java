@@ -0,0 +1,24 @@
+package com.mobiquity.packer;
+
+import java.util.Locale;
+
+public enum SolverType {
+    KNAPSACK,
+    SUBSET_ENUMERATION,
+    LARGE_INSTANCE,
+    SCRATCH_KNAPSACK,
+    VECTOR_KNAPSACK,
+    PARALLEL_KNAPSACK,
+    APPROXIMATE,
+    ADAPTIVE;
+
+    public static final String SYSTEM_PROPERTY = "packer.solver";
+
+    public static SolverType fromSystemProperty() {
+        final String value = System.getProperty(SYSTEM_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return ADAPTIVE;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
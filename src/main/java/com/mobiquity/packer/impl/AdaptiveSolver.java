@@ -0,0 +1,225 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Sends every package to the engine expected to be cheapest for its shape:
+ * <ul>
+ *     <li>packages whose items all fit together are answered directly;</li>
+ *     <li>subset enumeration is used while its estimated time is below the one of the dense table;</li>
+ *     <li>the dense table is used while it stays within {@link Thresholds#denseCellLimit()} cells and the default memory
+ *     budget of {@link KnapsackSolver};</li>
+ *     <li>larger packages use the sparse Pareto frontier.</li>
+ * </ul>
+ * Every engine returns the same selection, so the choice only affects the running time. The time estimates come from a
+ * properties file named by {@value #CONFIG_SYSTEM_PROPERTY}, or from a short calibration run on first use.
+ */
+public final class AdaptiveSolver implements PackageSolver {
+
+    public static final String CONFIG_SYSTEM_PROPERTY = "packer.adaptive.config";
+
+    public static AdaptiveSolver getInstance() {
+        return newInstance(DefaultThresholds.INSTANCE, PackerMetrics.noop(), decision -> {
+        });
+    }
+
+    public static AdaptiveSolver newInstance(final PackerMetrics metrics) {
+        return newInstance(DefaultThresholds.INSTANCE, metrics, decision -> {
+        });
+    }
+
+    public static AdaptiveSolver newInstance(final Thresholds thresholds, final PackerMetrics metrics, final Consumer<Decision> listener) {
+        return new AdaptiveSolver(thresholds, metrics, listener);
+    }
+
+    private final Thresholds thresholds;
+    private final PackerMetrics metrics;
+    private final Consumer<Decision> listener;
+    private final Map<Engine, LongAdder> counts = new EnumMap<>(Engine.class);
+
+    private AdaptiveSolver(final Thresholds thresholds, final PackerMetrics metrics, final Consumer<Decision> listener) {
+        this.thresholds = thresholds;
+        this.metrics = metrics;
+        this.listener = listener;
+        for (final Engine engine : Engine.values()) {
+            this.counts.put(engine, new LongAdder());
+        }
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        final long cells = fixedPointPackage.cells();
+        final Engine engine = this.chooseEngine(fixedPointPackage, cells);
+
+        final BitSet selection = switch (engine) {
+            case TRIVIAL -> positiveCostItems(fixedPointPackage);
+            case SUBSET_ENUMERATION -> SubsetEnumerationSolver.select(fixedPointPackage, SubsetEnumerationSolver.DEFAULT_GRAY_CODE_ITEM_LIMIT);
+            case DENSE -> DenseKnapsackEngine.select(fixedPointPackage);
+            case PARETO -> ParetoFrontierEngine.select(fixedPointPackage);
+        };
+        if (engine == Engine.DENSE) {
+            this.metrics.increment(Counter.DP_CELLS, cells);
+        }
+
+        this.counts.get(engine).increment();
+        this.listener.accept(new Decision(fixedPointPackage.size(), fixedPointPackage.capacity(), engine));
+        return fixedPointPackage.toOptimizedPackage(selection);
+    }
+
+    public Thresholds thresholds() {
+        return this.thresholds;
+    }
+
+    public Map<Engine, Long> counts() {
+        final Map<Engine, Long> counts = new EnumMap<>(Engine.class);
+        this.counts.forEach((engine, count) -> counts.put(engine, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private Engine chooseEngine(final FixedPointPackage fixedPointPackage, final long cells) {
+        final int size = fixedPointPackage.size();
+        long totalWeight = 0;
+        for (int i = 0; i < size && totalWeight <= fixedPointPackage.capacity(); i++) {
+            totalWeight += fixedPointPackage.weight(i);
+        }
+        if (totalWeight <= fixedPointPackage.capacity()) {
+            return Engine.TRIVIAL;
+        }
+
+        if (SubsetEnumerationSolver.supports(fixedPointPackage, SubsetEnumerationSolver.DEFAULT_GRAY_CODE_ITEM_LIMIT)
+                && this.thresholds.nanosPerSubset() * subsetCount(size) < this.thresholds.nanosPerDenseCell() * cells) {
+            return Engine.SUBSET_ENUMERATION;
+        }
+        return cells <= this.thresholds.denseCellLimit()
+                && KnapsackPlan.of(fixedPointPackage, KnapsackSolver.DEFAULT_MEMORY_BUDGET) == KnapsackPlan.DENSE ? Engine.DENSE : Engine.PARETO;
+    }
+
+    /**
+     * Subsets visited by Gray-code enumeration, or by meet-in-the-middle including its sort of the upper half.
+     */
+    private static double subsetCount(final int size) {
+        if (size <= SubsetEnumerationSolver.DEFAULT_GRAY_CODE_ITEM_LIMIT) {
+            return Math.pow(2, size);
+        }
+        final int upperSize = size - size / 2;
+        return Math.pow(2, size / 2) + Math.pow(2, upperSize) * upperSize;
+    }
+
+    /**
+     * With every item fitting, the best selection holds exactly the items with a positive cost.
+     */
+    private static BitSet positiveCostItems(final FixedPointPackage fixedPointPackage) {
+        final BitSet selection = new BitSet(fixedPointPackage.size());
+        for (int i = 0; i < fixedPointPackage.size(); i++) {
+            if (fixedPointPackage.cost(i) > 0) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    public enum Engine {
+        TRIVIAL,
+        SUBSET_ENUMERATION,
+        DENSE,
+        PARETO
+    }
+
+    public record Decision(int itemCount, long capacity, Engine engine) {
+    }
+
+    public record Thresholds(double nanosPerSubset, double nanosPerDenseCell, long denseCellLimit) {
+
+        private static final int CALIBRATION_ITEMS = 16;
+        private static final int CALIBRATION_WEIGHT_LIMIT = 100;
+        private static final int CALIBRATION_RUNS = 5;
+        private static final long DEFAULT_DENSE_CELL_LIMIT = 1L << 28;
+
+        public Thresholds {
+            if (!(nanosPerSubset > 0) || !(nanosPerDenseCell > 0) || denseCellLimit <= 0) {
+                throw new IllegalArgumentException("Thresholds must be positive");
+            }
+        }
+
+        public static Thresholds load(final Path path) throws IOException {
+            final Properties properties = new Properties();
+            try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            return new Thresholds(
+                    Double.parseDouble(properties.getProperty("nanosPerSubset")),
+                    Double.parseDouble(properties.getProperty("nanosPerDenseCell")),
+                    Long.parseLong(properties.getProperty("denseCellLimit", String.valueOf(DEFAULT_DENSE_CELL_LIMIT))));
+        }
+
+        /**
+         * Times both exact engines on the same random package of {@value #CALIBRATION_ITEMS} items with two decimal weights
+         * and keeps the fastest of a few runs of each.
+         */
+        public static Thresholds calibrate() {
+            final Random random = new Random(CALIBRATION_ITEMS);
+            final List<Item> items = new ArrayList<>(CALIBRATION_ITEMS);
+            for (int index = 1; index <= CALIBRATION_ITEMS; index++) {
+                items.add(new Item(index, BigDecimal.valueOf(1 + random.nextInt(CALIBRATION_WEIGHT_LIMIT * 100), 2),
+                        BigDecimal.valueOf(1 + random.nextInt(100))));
+            }
+            final FixedPointPackage fixedPointPackage = FixedPointPackage.of(new InboundPackage(CALIBRATION_WEIGHT_LIMIT, items));
+
+            long subsetNanos = Long.MAX_VALUE;
+            long denseNanos = Long.MAX_VALUE;
+            for (int run = 0; run < CALIBRATION_RUNS; run++) {
+                long start = System.nanoTime();
+                SubsetEnumerationSolver.select(fixedPointPackage, CALIBRATION_ITEMS);
+                subsetNanos = Math.min(subsetNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                DenseKnapsackEngine.select(fixedPointPackage);
+                denseNanos = Math.min(denseNanos, System.nanoTime() - start);
+            }
+
+            final long cells = fixedPointPackage.cells();
+            return new Thresholds(Math.max(1, subsetNanos) / Math.pow(2, CALIBRATION_ITEMS), (double) Math.max(1, denseNanos) / cells,
+                    DEFAULT_DENSE_CELL_LIMIT);
+        }
+    }
+
+    private static final class DefaultThresholds {
+
+        private static final Thresholds INSTANCE = load();
+
+        private static Thresholds load() {
+            final String config = System.getProperty(CONFIG_SYSTEM_PROPERTY);
+            if (config == null || config.isBlank()) {
+                return Thresholds.calibrate();
+            }
+            try {
+                return Thresholds.load(Path.of(config.trim()));
+            } catch (final IOException e) {
+                throw new IllegalStateException("Cannot read adaptive solver thresholds from " + config, e);
+            }
+        }
+    }
+}
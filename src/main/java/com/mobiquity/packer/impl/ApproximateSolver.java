@@ -0,0 +1,175 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.model.ApproximatePackage;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Cost scaling FPTAS. A greedy pass by cost density gives a lower bound {@code L} of at least half the optimum, costs are
+ * divided by {@code epsilon * L / n} and a DP over the scaled costs finds the lightest selection for every scaled cost,
+ * so the table has {@code O(n^2 / epsilon)} cells whatever the capacity. The reported ratio is the larger of
+ * {@code 1 - epsilon} and the ratio of the selected cost to the fractional (LP) upper bound.
+ */
+public final class ApproximateSolver implements PackageSolver {
+
+    public static final String EPSILON_SYSTEM_PROPERTY = "packer.approximation.epsilon";
+    public static final double DEFAULT_EPSILON = 0.01;
+
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    public static ApproximateSolver getInstance() {
+        final String epsilon = System.getProperty(EPSILON_SYSTEM_PROPERTY);
+        return newInstance(epsilon == null || epsilon.isBlank() ? DEFAULT_EPSILON : Double.parseDouble(epsilon.trim()));
+    }
+
+    public static ApproximateSolver newInstance(final double epsilon) {
+        validateEpsilon(epsilon);
+        return new ApproximateSolver(epsilon);
+    }
+
+    private final double epsilon;
+
+    private ApproximateSolver(final double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        return this.solveApproximately(inboundPackage, this.epsilon).optimizedPackage();
+    }
+
+    public double epsilon() {
+        return this.epsilon;
+    }
+
+    public ApproximatePackage solveApproximately(final InboundPackage inboundPackage) {
+        return this.solveApproximately(inboundPackage, this.epsilon);
+    }
+
+    public ApproximatePackage solveApproximately(final InboundPackage inboundPackage, final double epsilon) {
+        validateEpsilon(epsilon);
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        final int size = fixedPointPackage.size();
+        if (size == 0) {
+            return new ApproximatePackage(fixedPointPackage.toOptimizedPackage(new BitSet()), epsilon, 1);
+        }
+
+        final Integer[] byDensity = byDensity(fixedPointPackage);
+        final long lowerBound = lowerBound(fixedPointPackage, byDensity);
+        final double scale = Math.max(1, epsilon * lowerBound / size);
+
+        final long[] scaledCosts = new long[size];
+        long totalScaledCost = 0;
+        for (int i = 0; i < size; i++) {
+            scaledCosts[i] = (long) (fixedPointPackage.cost(i) / scale);
+            totalScaledCost += scaledCosts[i];
+        }
+        final int maxScaledCost = Math.toIntExact(Math.min(totalScaledCost, (long) (2 * lowerBound / scale)));
+
+        final BitSet selection = select(fixedPointPackage, scaledCosts, maxScaledCost);
+        long cost = 0;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            cost += fixedPointPackage.cost(i);
+        }
+
+        final double upperBound = fractionalUpperBound(fixedPointPackage, byDensity);
+        final double achievedRatio = upperBound == 0 ? 1 : Math.max(1 - epsilon, Math.min(1, cost / upperBound));
+        return new ApproximatePackage(fixedPointPackage.toOptimizedPackage(selection), epsilon, achievedRatio);
+    }
+
+    private static BitSet select(final FixedPointPackage fixedPointPackage, final long[] scaledCosts, final int maxScaledCost) {
+        final int size = fixedPointPackage.size();
+        final long rowLength = maxScaledCost + 1L;
+        final long[] lightest = new long[maxScaledCost + 1];
+        Arrays.fill(lightest, UNREACHABLE);
+        lightest[0] = 0;
+        final long[] decisions = new long[DenseKnapsackEngine.wordCount(size * rowLength)];
+
+        for (int i = 0; i < size; i++) {
+            final int scaledCost = (int) Math.min(scaledCosts[i], rowLength);
+            final long weight = fixedPointPackage.weight(i);
+            // Sums beyond the capacity can never be selected, so they stay unreachable instead of overflowing.
+            final long heaviestPrevious = fixedPointPackage.capacity() - weight;
+            for (int p = maxScaledCost; p >= scaledCost && scaledCost > 0; p--) {
+                final long previous = lightest[p - scaledCost];
+                if (previous <= heaviestPrevious && previous + weight < lightest[p]) {
+                    lightest[p] = previous + weight;
+                    DenseKnapsackEngine.setBit(decisions, i * rowLength + p);
+                }
+            }
+        }
+
+        int p = maxScaledCost;
+        while (lightest[p] > fixedPointPackage.capacity()) {
+            p--;
+        }
+
+        final BitSet selection = new BitSet(size);
+        for (int i = size - 1; i >= 0 && p > 0; i--) {
+            if (DenseKnapsackEngine.isBitSet(decisions, i * rowLength + p)) {
+                selection.set(i);
+                p -= (int) scaledCosts[i];
+            }
+        }
+        return selection;
+    }
+
+    private static long lowerBound(final FixedPointPackage fixedPointPackage, final Integer[] byDensity) {
+        long greedyCost = 0;
+        long greedyWeight = 0;
+        long bestSingleCost = 0;
+        for (final int i : byDensity) {
+            bestSingleCost = Math.max(bestSingleCost, fixedPointPackage.cost(i));
+            if (greedyWeight + fixedPointPackage.weight(i) <= fixedPointPackage.capacity()) {
+                greedyWeight += fixedPointPackage.weight(i);
+                greedyCost += fixedPointPackage.cost(i);
+            }
+        }
+        return Math.max(greedyCost, bestSingleCost);
+    }
+
+    private static double fractionalUpperBound(final FixedPointPackage fixedPointPackage, final Integer[] byDensity) {
+        double cost = 0;
+        long remaining = fixedPointPackage.capacity();
+        for (final int i : byDensity) {
+            final long weight = fixedPointPackage.weight(i);
+            if (weight <= remaining) {
+                remaining -= weight;
+                cost += fixedPointPackage.cost(i);
+            } else {
+                return cost + (double) fixedPointPackage.cost(i) * remaining / weight;
+            }
+        }
+        return cost;
+    }
+
+    private static Integer[] byDensity(final FixedPointPackage fixedPointPackage) {
+        final Integer[] positions = new Integer[fixedPointPackage.size()];
+        Arrays.setAll(positions, i -> i);
+        Arrays.sort(positions, (a, b) -> compareDensity(fixedPointPackage.cost(b), fixedPointPackage.weight(b),
+                fixedPointPackage.cost(a), fixedPointPackage.weight(a)));
+        return positions;
+    }
+
+    /**
+     * Compares {@code cost / weight} of two items exactly, through the 128-bit products of the cross multiplication.
+     */
+    private static int compareDensity(final long cost, final long weight, final long otherCost, final long otherWeight) {
+        final long high = Math.multiplyHigh(cost, otherWeight);
+        final long otherHigh = Math.multiplyHigh(otherCost, weight);
+        if (high != otherHigh) {
+            return Long.compare(high, otherHigh);
+        }
+        return Long.compareUnsigned(cost * otherWeight, otherCost * weight);
+    }
+
+    private static void validateEpsilon(final double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Epsilon must be between 0 and 1: " + epsilon);
+        }
+    }
+}
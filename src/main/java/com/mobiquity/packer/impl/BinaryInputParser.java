@@ -0,0 +1,140 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageReader;
+import com.mobiquity.packer.PackerLimits;
+import com.mobiquity.packer.model.InboundPackage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Reads files written by {@link BinaryPackageConverter}. Records were validated when they were converted, so they are
+ * only checked against their checksum here, after their length has been checked against the largest record allowed by
+ * the limits and against the bytes left in the file. Records have no line form, so this is a {@link PackageReader} and not an
+ * {@code InputParser}.
+ */
+public final class BinaryInputParser implements PackageReader {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public static PackageReader getInstance() {
+        return newInstance(PackerLimits.fromSystemProperties());
+    }
+
+    public static PackageReader newInstance(final PackerLimits limits) {
+        return new BinaryInputParser(BinaryPackageFormat.maxPayloadSize(limits.maxItems()));
+    }
+
+    private final int maxPayloadLength;
+
+    private BinaryInputParser(final int maxPayloadLength) {
+        this.maxPayloadLength = maxPayloadLength;
+    }
+
+    @Override
+    public Stream<InboundPackage> read(final Path path) throws IOException {
+        final RecordReader reader = new RecordReader(FileChannel.open(path, StandardOpenOption.READ), this.maxPayloadLength);
+        try {
+            reader.readHeader();
+        } catch (final IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(reader::close);
+    }
+
+    private static final class RecordReader implements Iterator<InboundPackage> {
+
+        private final FileChannel channel;
+        private final int maxPayloadLength;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        private long offset;
+        private long size;
+
+        RecordReader(final FileChannel channel, final int maxPayloadLength) {
+            this.channel = channel;
+            this.maxPayloadLength = maxPayloadLength;
+        }
+
+        void readHeader() throws IOException {
+            this.size = this.channel.size();
+            this.fill(BinaryPackageFormat.HEADER_SIZE);
+            BinaryPackageFormat.readHeader(this.buffer);
+            this.offset = BinaryPackageFormat.HEADER_SIZE;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                return this.buffer.hasRemaining() || this.read() > 0;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public InboundPackage next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                this.fill(Integer.BYTES);
+                final int payloadLength = this.buffer.getInt();
+                if (payloadLength < 0 || payloadLength > this.maxPayloadLength
+                        || payloadLength > this.size - this.offset - BinaryPackageFormat.RECORD_OVERHEAD) {
+                    throw new IOException("Invalid record length " + payloadLength + " at offset " + this.offset);
+                }
+                this.fill(payloadLength + Integer.BYTES);
+
+                final InboundPackage inboundPackage = BinaryPackageFormat.readRecord(this.buffer, payloadLength, this.crc, this.offset);
+                this.offset += BinaryPackageFormat.RECORD_OVERHEAD + payloadLength;
+                return inboundPackage;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            try {
+                this.channel.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void fill(final int bytes) throws IOException {
+            if (bytes > this.buffer.capacity()) {
+                this.buffer = ByteBuffer.allocate(bytes).put(this.buffer).flip();
+            }
+            while (this.buffer.remaining() < bytes) {
+                if (this.read() < 0) {
+                    throw new EOFException("Truncated record at offset " + this.offset);
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            this.buffer.compact();
+            try {
+                return this.channel.read(this.buffer);
+            } finally {
+                this.buffer.flip();
+            }
+        }
+    }
+}
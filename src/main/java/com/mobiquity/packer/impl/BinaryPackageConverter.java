@@ -0,0 +1,70 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.model.InboundPackage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public final class BinaryPackageConverter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private BinaryPackageConverter() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryPackageConverter <text input> <binary output>");
+            System.exit(2);
+        }
+        System.out.println(convert(Path.of(args[0]), Path.of(args[1])) + " packages converted");
+    }
+
+    public static long convert(final Path textInput, final Path binaryOutput) throws IOException {
+        return convert(InputParser.getDefaultInstance(), textInput, binaryOutput);
+    }
+
+    public static long convert(final InputParser inputParser, final Path textInput, final Path binaryOutput) throws IOException {
+        try (final Stream<InboundPackage> inboundPackages = inputParser.parse(textInput);
+             final FileChannel channel = FileChannel.open(binaryOutput,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            final CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            BinaryPackageFormat.writeHeader(buffer);
+
+            long count = 0;
+            final Iterator<InboundPackage> iterator = inboundPackages.iterator();
+            while (iterator.hasNext()) {
+                final InboundPackage inboundPackage = iterator.next();
+                final int recordSize = BinaryPackageFormat.recordSize(inboundPackage);
+                if (buffer.remaining() < recordSize) {
+                    drain(channel, buffer);
+                    if (buffer.capacity() < recordSize) {
+                        buffer = ByteBuffer.allocate(recordSize);
+                    }
+                }
+                BinaryPackageFormat.writeRecord(buffer, inboundPackage, crc);
+                count++;
+            }
+            drain(channel, buffer);
+
+            return count;
+        }
+    }
+
+    private static void drain(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
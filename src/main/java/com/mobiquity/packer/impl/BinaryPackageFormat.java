@@ -0,0 +1,132 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Layout of the binary package format. A file starts with the magic number {@code PKB1}, a version and a reserved short,
+ * followed by one record per package: the payload length, the payload and the CRC32 of the payload.
+ * The payload holds the weight limit, the item count and then the items as separate arrays of indices, unscaled weights,
+ * unscaled costs, weight scales and cost scales.
+ */
+final class BinaryPackageFormat {
+
+    static final int MAGIC = 0x504B4231;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Short.BYTES;
+    static final int RECORD_OVERHEAD = Integer.BYTES + Integer.BYTES;
+
+    private static final int PACKAGE_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int ITEM_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Byte.BYTES + Byte.BYTES;
+
+    private BinaryPackageFormat() {
+    }
+
+    static void writeHeader(final ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+    }
+
+    static void readHeader(final ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary package file");
+        }
+        final short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary package version: " + version);
+        }
+        buffer.getShort();
+    }
+
+    static int recordSize(final InboundPackage inboundPackage) {
+        return RECORD_OVERHEAD + payloadSize(inboundPackage.items().size());
+    }
+
+    static void writeRecord(final ByteBuffer buffer, final InboundPackage inboundPackage, final CRC32 crc) {
+        final List<Item> items = inboundPackage.items();
+        final int payloadStart = buffer.position() + Integer.BYTES;
+
+        buffer.putInt(payloadSize(items.size()));
+        buffer.putInt(inboundPackage.weightLimit());
+        buffer.putInt(items.size());
+        for (final Item item : items) {
+            buffer.putInt(item.index());
+        }
+        for (final Item item : items) {
+            buffer.putLong(item.weight().unscaledValue().longValueExact());
+        }
+        for (final Item item : items) {
+            buffer.putLong(item.cost().unscaledValue().longValueExact());
+        }
+        for (final Item item : items) {
+            buffer.put(toScaleByte(item.weight()));
+        }
+        for (final Item item : items) {
+            buffer.put(toScaleByte(item.cost()));
+        }
+
+        crc.reset();
+        crc.update(buffer.duplicate().position(payloadStart).limit(buffer.position()));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Decodes the record whose payload of {@code payloadLength} bytes starts at the buffer position, and verifies its
+     * checksum.
+     */
+    static InboundPackage readRecord(final ByteBuffer buffer, final int payloadLength, final CRC32 crc, final long offset) throws IOException {
+        final int payloadStart = buffer.position();
+        crc.reset();
+        crc.update(buffer.duplicate().limit(payloadStart + payloadLength));
+        if ((int) crc.getValue() != buffer.getInt(payloadStart + payloadLength)) {
+            throw new IOException("Checksum mismatch in record at offset " + offset);
+        }
+
+        final int weightLimit = buffer.getInt();
+        final int itemCount = buffer.getInt();
+        if (payloadSize(itemCount) != payloadLength) {
+            throw new IOException("Invalid item count " + itemCount + " in record at offset " + offset);
+        }
+
+        final int indicesStart = buffer.position();
+        final int weightsStart = indicesStart + itemCount * Integer.BYTES;
+        final int costsStart = weightsStart + itemCount * Long.BYTES;
+        final int weightScalesStart = costsStart + itemCount * Long.BYTES;
+        final int costScalesStart = weightScalesStart + itemCount;
+
+        final List<Item> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            final BigDecimal weight = BigDecimal.valueOf(buffer.getLong(weightsStart + i * Long.BYTES), buffer.get(weightScalesStart + i));
+            final BigDecimal cost = BigDecimal.valueOf(buffer.getLong(costsStart + i * Long.BYTES), buffer.get(costScalesStart + i));
+            items.add(new Item(buffer.getInt(indicesStart + i * Integer.BYTES), weight, cost));
+        }
+
+        buffer.position(payloadStart + payloadLength + Integer.BYTES);
+        return new InboundPackage(weightLimit, items);
+    }
+
+    /**
+     * Largest payload of a package with at most {@code maxItems} items, capped so that a whole record fits into an array.
+     */
+    static int maxPayloadSize(final int maxItems) {
+        return (int) Math.min(Integer.MAX_VALUE - RECORD_OVERHEAD, PACKAGE_HEADER_SIZE + (long) maxItems * ITEM_SIZE);
+    }
+
+    private static int payloadSize(final int itemCount) {
+        return PACKAGE_HEADER_SIZE + itemCount * ITEM_SIZE;
+    }
+
+    private static byte toScaleByte(final BigDecimal value) {
+        final int scale = value.scale();
+        if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE) {
+            throw new ArithmeticException("Scale out of range for binary format: " + value);
+        }
+        return (byte) scale;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+/**
+ * Keeps the table of every solve within {@code cellBudget} cells, where both tables hold one decision bit per item and
+ * column and a row of longs counting {@value Long#SIZE} cells per column:
+ * <ul>
+ *     <li>packages whose dense table of {@code capacity + 1} columns fits are solved exactly;</li>
+ *     <li>others are solved approximately over at most {@code 2n / epsilon + 1} columns, with epsilon raised above the
+ *     configured one as far as needed to fit;</li>
+ *     <li>when no epsilon below one fits either, the smaller of the exact table and the configured approximate one is used.</li>
+ * </ul>
+ */
+public final class BudgetedSolver implements PackageSolver {
+
+    public static final String CELL_BUDGET_SYSTEM_PROPERTY = "packer.approximation.cellBudget";
+
+    public static PackageSolver newInstance(final PackageSolver exactSolver, final ApproximateSolver approximateSolver, final long cellBudget) {
+        if (cellBudget <= 0) {
+            throw new IllegalArgumentException("Cell budget must be positive: " + cellBudget);
+        }
+        return new BudgetedSolver(exactSolver, approximateSolver, cellBudget);
+    }
+
+    private final PackageSolver exactSolver;
+    private final ApproximateSolver approximateSolver;
+    private final long cellBudget;
+
+    private BudgetedSolver(final PackageSolver exactSolver, final ApproximateSolver approximateSolver, final long cellBudget) {
+        this.exactSolver = exactSolver;
+        this.approximateSolver = approximateSolver;
+        this.cellBudget = cellBudget;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        final int size = fixedPointPackage.size();
+        final long exactCells = tableCells(size, fixedPointPackage.capacity() + 1);
+        if (exactCells <= this.cellBudget) {
+            return this.exactSolver.solve(inboundPackage);
+        }
+
+        final double columnsWithinBudget = (double) this.cellBudget / (size + Long.SIZE) - 1;
+        final double epsilon = columnsWithinBudget > 0
+                ? Math.max(this.approximateSolver.epsilon(), 2d * size / columnsWithinBudget)
+                : Double.POSITIVE_INFINITY;
+        if (epsilon < 1) {
+            return this.approximateSolver.solveApproximately(inboundPackage, epsilon).optimizedPackage();
+        }
+        return exactCells <= tableCells(size, approximateColumns(size, this.approximateSolver.epsilon()))
+                ? this.exactSolver.solve(inboundPackage)
+                : this.approximateSolver.solve(inboundPackage);
+    }
+
+    /**
+     * Upper bound of the scaled cost columns of {@link ApproximateSolver}, which never exceed {@code 2n / epsilon}.
+     */
+    private static long approximateColumns(final int size, final double epsilon) {
+        return (long) Math.min(Long.MAX_VALUE, Math.floor(2d * size / epsilon) + 1);
+    }
+
+    /**
+     * Cells of {@code size} decision bit rows and one row of longs, or {@link Long#MAX_VALUE} when that overflows.
+     */
+    private static long tableCells(final int size, final long columns) {
+        final long rows = size + (long) Long.SIZE;
+        return columns > Long.MAX_VALUE / rows ? Long.MAX_VALUE : rows * columns;
+    }
+}
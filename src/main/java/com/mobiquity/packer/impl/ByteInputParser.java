@@ -0,0 +1,269 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.InputValidator;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Regex free parser that scans the UTF-8 bytes of a line and reads every number straight into fixed-point primitives.
+ * Any line it cannot read is handed to {@link TextInputParser}, so malformed input fails with exactly the same
+ * validation messages.
+ */
+public final class ByteInputParser implements InputParser {
+
+    private static final byte EURO_FIRST = (byte) 0xE2;
+    private static final byte EURO_SECOND = (byte) 0x82;
+    private static final byte EURO_THIRD = (byte) 0xAC;
+    private static final int INITIAL_ITEM_CAPACITY = 16;
+    private static final long MAX_UNSCALED = Long.MAX_VALUE / 10 - 9;
+
+    public static ByteInputParser newInstance(final InputValidator inputValidator) {
+        return newInstance(inputValidator, MappedLineReader.DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * @param regionSize bytes mapped at a time when parsing a file, which must hold the longest line and its line break
+     */
+    public static ByteInputParser newInstance(final InputValidator inputValidator, final int regionSize) {
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("Region size must be positive: " + regionSize);
+        }
+        return new ByteInputParser(inputValidator, regionSize);
+    }
+
+    private final InputValidator inputValidator;
+    private final InputParser fallbackParser;
+    private final int regionSize;
+
+    private ByteInputParser(final InputValidator inputValidator, final int regionSize) {
+        this.inputValidator = inputValidator;
+        this.fallbackParser = TextInputParser.newInstance(inputValidator);
+        this.regionSize = regionSize;
+    }
+
+    @Override
+    public InboundPackage parse(final String input) {
+        return this.parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public InboundPackage parse(final ByteBuffer line) {
+        return this.parse(line, line.position(), line.limit());
+    }
+
+    @Override
+    public Stream<InboundPackage> parse(final Path path) throws IOException {
+        final MappedLineReader reader = MappedLineReader.open(path, this.regionSize);
+        final Iterator<InboundPackage> packages = new Iterator<>() {
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (this.hasNext == null) {
+                    try {
+                        this.hasNext = reader.nextLine();
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return this.hasNext;
+            }
+
+            @Override
+            public InboundPackage next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.hasNext = null;
+                return ByteInputParser.this.parse(reader.buffer(), reader.lineStart(), reader.lineEnd());
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(packages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    InboundPackage parse(final ByteBuffer buffer, final int from, final int to) {
+        final ScannedLine line = new ScannedLine();
+        if (!line.scan(buffer, from, to, this.inputValidator.maxItems())) {
+            return this.fallbackParser.parse(StandardCharsets.UTF_8.decode(buffer.slice(from, to - from)).toString());
+        }
+
+        this.inputValidator.validatePackageWeightLimit(line.weightLimit);
+
+        final List<Item> items = new ArrayList<>(line.itemCount);
+        for (int i = 0; i < line.itemCount; i++) {
+            final int index = line.indices[i];
+            final BigDecimal weight = BigDecimal.valueOf(line.weights[i], line.weightScales[i]);
+            this.inputValidator.validateItemWeightLimit(weight, index);
+            final BigDecimal cost = BigDecimal.valueOf(line.costs[i]);
+            this.inputValidator.validateItemCost(cost, index);
+
+            items.add(new Item(index, weight, cost));
+        }
+
+        return new InboundPackage(line.weightLimit, items);
+    }
+
+    /**
+     * Single pass over {@code weightLimit : (index,weight,€cost) ...}, accepting the same language as the line pattern
+     * of {@link TextInputValidator}.
+     */
+    private static final class ScannedLine {
+
+        private int weightLimit;
+        private int itemCount;
+        private int[] indices = new int[INITIAL_ITEM_CAPACITY];
+        private long[] weights = new long[INITIAL_ITEM_CAPACITY];
+        private int[] weightScales = new int[INITIAL_ITEM_CAPACITY];
+        private long[] costs = new long[INITIAL_ITEM_CAPACITY];
+
+        private ByteBuffer buffer;
+        private int position;
+        private int limit;
+        private long number;
+        private int scale;
+
+        boolean scan(final ByteBuffer buffer, final int from, final int to, final int maxItems) {
+            this.buffer = buffer;
+            this.position = from;
+            this.limit = to;
+
+            if (!this.readInteger()) {
+                return false;
+            }
+            this.weightLimit = (int) this.number;
+
+            this.skipWhitespace();
+            if (!this.expect((byte) ':')) {
+                return false;
+            }
+            this.skipWhitespace();
+
+            do {
+                if (this.itemCount == maxItems || !this.scanItem()) {
+                    return false;
+                }
+                this.skipWhitespace();
+            } while (this.position < this.limit);
+
+            return true;
+        }
+
+        private boolean scanItem() {
+            if (!this.expect((byte) '(') || !this.readInteger()) {
+                return false;
+            }
+            final int index = (int) this.number;
+
+            if (!this.expect((byte) ',') || !this.readDecimal()) {
+                return false;
+            }
+            final long weight = this.number;
+            final int weightScale = this.scale;
+
+            if (!this.expect((byte) ',') || !this.expect(EURO_FIRST) || !this.expect(EURO_SECOND) || !this.expect(EURO_THIRD)
+                    || !this.readDigits() || !this.expect((byte) ')')) {
+                return false;
+            }
+
+            this.add(index, weight, weightScale, this.number);
+            return true;
+        }
+
+        private void add(final int index, final long weight, final int weightScale, final long cost) {
+            if (this.itemCount == this.indices.length) {
+                final int capacity = this.itemCount * 2;
+                this.indices = Arrays.copyOf(this.indices, capacity);
+                this.weights = Arrays.copyOf(this.weights, capacity);
+                this.weightScales = Arrays.copyOf(this.weightScales, capacity);
+                this.costs = Arrays.copyOf(this.costs, capacity);
+            }
+            this.indices[this.itemCount] = index;
+            this.weights[this.itemCount] = weight;
+            this.weightScales[this.itemCount] = weightScale;
+            this.costs[this.itemCount] = cost;
+            this.itemCount++;
+        }
+
+        private boolean readInteger() {
+            return this.readDigits() && this.number <= Integer.MAX_VALUE;
+        }
+
+        private boolean readDecimal() {
+            if (!this.readDigits()) {
+                return false;
+            }
+            this.scale = 0;
+            if (this.position < this.limit && this.buffer.get(this.position) == '.') {
+                this.position++;
+                final int fractionStart = this.position;
+                while (this.position < this.limit && isDigit(this.buffer.get(this.position))) {
+                    if (this.number > MAX_UNSCALED) {
+                        return false;
+                    }
+                    this.number = this.number * 10 + (this.buffer.get(this.position++) - '0');
+                }
+                this.scale = this.position - fractionStart;
+                return this.scale > 0;
+            }
+            return true;
+        }
+
+        private boolean readDigits() {
+            final int start = this.position;
+            this.number = 0;
+            while (this.position < this.limit && isDigit(this.buffer.get(this.position))) {
+                if (this.number > MAX_UNSCALED) {
+                    return false;
+                }
+                this.number = this.number * 10 + (this.buffer.get(this.position++) - '0');
+            }
+            return this.position > start;
+        }
+
+        private boolean expect(final byte expected) {
+            if (this.position < this.limit && this.buffer.get(this.position) == expected) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (this.position < this.limit && isWhitespace(this.buffer.get(this.position))) {
+                this.position++;
+            }
+        }
+
+        private static boolean isDigit(final byte value) {
+            return value >= '0' && value <= '9';
+        }
+
+        private static boolean isWhitespace(final byte value) {
+            return value == ' ' || value == '\t' || value == '\n' || value == 0x0B || value == '\f' || value == '\r';
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.exception.PackerValidationException;
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Memoizing decorator keyed on the weight limit and the items sorted by weight and cost, so identical and permuted
+ * packages share one entry. Each entry keeps the selected positions of the sorted items, which are mapped back to the
+ * caller's items; identical items are matched in their original order.
+ * <p>
+ * Misses are solved in the caller's order. When another combination reaches the same best cost and weight, the delegate
+ * breaks the tie by item order, so such an entry is only reused for packages whose items come in the order it was solved
+ * in, and other orders are cached under a key that includes their order. Entries are kept in striped LRU segments, each
+ * guarded by its own lock.
+ */
+public final class CachingSolver implements PackageSolver {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final Comparator<Item> CANONICAL_ORDER = Comparator.comparing(Item::weight).thenComparing(Item::cost);
+    private static final long UNIQUENESS_CAPACITY_LIMIT = 1L << 22;
+    private static final long UNIQUENESS_CELL_LIMIT = 1L << 28;
+
+    public static CachingSolver newInstance(final PackageSolver delegate, final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+        }
+        return new CachingSolver(delegate, maximumSize);
+    }
+
+    private final PackageSolver delegate;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private CachingSolver(final PackageSolver delegate, final int maximumSize) {
+        this.delegate = delegate;
+        final int segmentCount = Math.min(SEGMENT_COUNT, maximumSize);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(Math.max(1, maximumSize / segmentCount));
+        }
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final List<Item> items = inboundPackage.items();
+        final int[] order = canonicalOrder(items);
+        final PackageKey key = PackageKey.of(inboundPackage.weightLimit(), items, order);
+
+        Entry entry = this.segment(key).get(key);
+        final boolean canonicalEntry = entry != null;
+        if (entry != null && !entry.matches(order)) {
+            final PackageKey orderedKey = key.withOrder(order);
+            entry = this.segment(orderedKey).get(orderedKey);
+        }
+
+        if (entry == null) {
+            this.misses.increment();
+            entry = this.solveEntry(inboundPackage, order);
+            final PackageKey entryKey = canonicalEntry ? key.withOrder(order) : key;
+            this.segment(entryKey).put(entryKey, entry);
+        } else {
+            this.hits.increment();
+        }
+
+        final List<Item> selectedItems = new ArrayList<>(entry.selection().length);
+        for (final int rank : entry.selection()) {
+            selectedItems.add(items.get(order[rank]));
+        }
+        selectedItems.sort(null);
+
+        return new OptimizedPackage(inboundPackage.weightLimit(), selectedItems);
+    }
+
+    public Stats stats() {
+        long size = 0;
+        for (final Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return new Stats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), size);
+    }
+
+    private Segment segment(final PackageKey key) {
+        return this.segments[Math.floorMod(key.hashCode(), this.segments.length)];
+    }
+
+    /**
+     * Solves the items in the caller's order and keeps the selection as ranks in {@code order}, the caller positions of
+     * the sorted items.
+     */
+    private Entry solveEntry(final InboundPackage inboundPackage, final int[] order) {
+        final List<Item> items = inboundPackage.items();
+        final List<Item> positionedItems = new ArrayList<>(items.size());
+        for (int position = 0; position < items.size(); position++) {
+            final Item item = items.get(position);
+            positionedItems.add(new Item(position, item.weight(), item.cost()));
+        }
+
+        final int[] ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        final int[] selection = this.delegate.solve(new InboundPackage(inboundPackage.weightLimit(), positionedItems)).items().stream()
+                .mapToInt(item -> ranks[item.index()])
+                .toArray();
+
+        return new Entry(selection, hasUniqueOptimum(inboundPackage) ? null : order);
+    }
+
+    private static int[] canonicalOrder(final List<Item> items) {
+        return IntStream.range(0, items.size())
+                .boxed()
+                .sorted(Comparator.comparing(items::get, CANONICAL_ORDER))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Whether a single combination reaches the highest cost at the lowest weight, so that every item order yields it.
+     * Counts the combinations of each exact weight reaching its best cost, up to two; packages too large for that count
+     * are treated as having ties.
+     */
+    private static boolean hasUniqueOptimum(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage;
+        try {
+            fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        } catch (final PackerValidationException e) {
+            return false;
+        }
+        if (fixedPointPackage.capacity() > UNIQUENESS_CAPACITY_LIMIT || fixedPointPackage.cells() > UNIQUENESS_CELL_LIMIT) {
+            return false;
+        }
+
+        final int capacity = (int) fixedPointPackage.capacity();
+        final long[] costs = new long[capacity + 1];
+        final byte[] counts = new byte[capacity + 1];
+        Arrays.fill(costs, Long.MIN_VALUE);
+        costs[0] = 0;
+        counts[0] = 1;
+        for (int i = 0; i < fixedPointPackage.size(); i++) {
+            final int weight = (int) fixedPointPackage.weight(i);
+            final long cost = fixedPointPackage.cost(i);
+            for (int w = capacity; w >= weight; w--) {
+                if (costs[w - weight] == Long.MIN_VALUE) {
+                    continue;
+                }
+                final long costWithItem = costs[w - weight] + cost;
+                if (costWithItem > costs[w]) {
+                    costs[w] = costWithItem;
+                    counts[w] = counts[w - weight];
+                } else if (costWithItem == costs[w]) {
+                    counts[w] = (byte) Math.min(2, counts[w] + counts[w - weight]);
+                }
+            }
+        }
+
+        int lightest = 0;
+        for (int w = 1; w <= capacity; w++) {
+            if (costs[w] > costs[lightest]) {
+                lightest = w;
+            }
+        }
+        return counts[lightest] == 1;
+    }
+
+    public record Stats(long hits, long misses, long evictions, long size) {
+
+        public double hitRate() {
+            final long requests = this.hits + this.misses;
+            return requests == 0 ? 0 : (double) this.hits / requests;
+        }
+    }
+
+    /**
+     * Selected ranks of the sorted items, and the order the package was solved in when another order may select
+     * differently.
+     */
+    private record Entry(int[] selection, int[] order) {
+
+        boolean matches(final int[] order) {
+            return this.order == null || Arrays.equals(this.order, order);
+        }
+    }
+
+    /**
+     * Weight limit with the sorted weights and costs, and for packages cached per order the caller positions of the sorted
+     * items.
+     */
+    private record PackageKey(int weightLimit, List<BigDecimal> weights, List<BigDecimal> costs, List<Integer> order) {
+
+        static PackageKey of(final int weightLimit, final List<Item> items, final int[] order) {
+            final List<BigDecimal> weights = new ArrayList<>(items.size());
+            final List<BigDecimal> costs = new ArrayList<>(items.size());
+            for (final int position : order) {
+                weights.add(items.get(position).weight().stripTrailingZeros());
+                costs.add(items.get(position).cost().stripTrailingZeros());
+            }
+            return new PackageKey(weightLimit, weights, costs, List.of());
+        }
+
+        PackageKey withOrder(final int[] order) {
+            return new PackageKey(this.weightLimit, this.weights, this.costs, Arrays.stream(order).boxed().toList());
+        }
+    }
+
+    private final class Segment {
+
+        private final Map<PackageKey, Entry> entries;
+
+        Segment(final int maximumSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<PackageKey, Entry> eldest) {
+                    final boolean evict = this.size() > maximumSize;
+                    if (evict) {
+                        CachingSolver.this.evictions.increment();
+                    }
+                    return evict;
+                }
+            };
+        }
+
+        synchronized Entry get(final PackageKey key) {
+            return this.entries.get(key);
+        }
+
+        synchronized void put(final PackageKey key, final Entry entry) {
+            this.entries.put(key, entry);
+        }
+
+        synchronized int size() {
+            return this.entries.size();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mobiquity.packer.impl;
+
+import java.util.BitSet;
+
+/**
+ * 0/1 knapsack over a single rolling {@code long} row. A decision bit is recorded whenever taking an item strictly
+ * improves a cell, so backtracking from the lightest optimal capacity yields the highest cost, then the lowest weight,
+ * then the selection that avoids the later items.
+ */
+final class DenseKnapsackEngine {
+
+    private DenseKnapsackEngine() {
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage) {
+        final int size = fixedPointPackage.size();
+        final int capacity = fixedPointPackage.denseCapacity();
+        final int rowLength = capacity + 1;
+
+        final long[] dp = new long[rowLength];
+        final long[] decisions = new long[wordCount((long) size * rowLength)];
+        for (int i = 0; i < size; i++) {
+            addItem(dp, decisions, capacity, i, (int) fixedPointPackage.weight(i), fixedPointPackage.cost(i));
+        }
+
+        return backtrack(fixedPointPackage, dp, decisions);
+    }
+
+    /**
+     * Walks the decision rows from the last item down, starting at the lightest capacity reaching the best cost of the
+     * final {@code dp} row.
+     */
+    static BitSet backtrack(final FixedPointPackage fixedPointPackage, final long[] dp, final long[] decisions) {
+        final long rowLength = fixedPointPackage.denseCapacity() + 1L;
+        final BitSet selection = new BitSet(fixedPointPackage.size());
+        int w = lightestOptimalCapacity(dp, fixedPointPackage.denseCapacity());
+        for (int i = fixedPointPackage.size() - 1; i >= 0 && w > 0; i--) {
+            if (isBitSet(decisions, i * rowLength + w)) {
+                selection.set(i);
+                w -= (int) fixedPointPackage.weight(i);
+            }
+        }
+        return selection;
+    }
+
+    /**
+     * Same as {@link #select(FixedPointPackage)} over caller supplied buffers, which only need to be zeroed for the first
+     * {@code capacity + 1} cells and {@code size * (capacity + 1)} bits. The selected positions are written to
+     * {@code selection} from the last item down and their count is returned.
+     */
+    static int select(final int size, final int capacity, final int[] weights, final long[] costs,
+                      final long[] dp, final long[] decisions, final int[] selection) {
+        for (int i = 0; i < size; i++) {
+            addItem(dp, decisions, capacity, i, weights[i], costs[i]);
+        }
+
+        final long rowLength = capacity + 1L;
+        int selected = 0;
+        int w = lightestOptimalCapacity(dp, capacity);
+        for (int i = size - 1; i >= 0 && w > 0; i--) {
+            if (isBitSet(decisions, i * rowLength + w)) {
+                selection[selected++] = i;
+                w -= weights[i];
+            }
+        }
+        return selected;
+    }
+
+    static int lightestOptimalCapacity(final long[] dp, final int capacity) {
+        final long best = dp[capacity];
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (dp[middle] >= best) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    static void addItem(final long[] dp, final long[] decisions, final int capacity, final int position,
+                                final int weight, final long cost) {
+        final long rowOffset = (long) position * (capacity + 1);
+        for (int w = capacity; w >= weight; w--) {
+            final long costWithItem = dp[w - weight] + cost;
+            if (costWithItem > dp[w]) {
+                dp[w] = costWithItem;
+                setBit(decisions, rowOffset + w);
+            }
+        }
+    }
+
+    static int wordCount(final long bits) {
+        return Math.toIntExact((bits + Long.SIZE - 1) >>> 6);
+    }
+
+    static void setBit(final long[] words, final long bit) {
+        words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    static boolean isBitSet(final long[] words, final long bit) {
+        return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+}
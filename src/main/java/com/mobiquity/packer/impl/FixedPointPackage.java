@@ -0,0 +1,139 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.exception.PackerValidationException;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Primitive view of an {@link InboundPackage}: weights and costs are scaled by a per package power of ten so that
+ * every value becomes an exact integer (e.g. {@code 53.38} becomes {@code 5338} when the weight scale is 2).
+ * Only the items that fit into the package on their own are kept, in their original order.
+ * <p>
+ * Capacities and weights are longs, so a limit of {@code 10000000} with weights of several decimals stays exact; the
+ * dense engines need the capacity as an array index and may only be used while {@link #hasDenseCapacity()} holds.
+ * Capacities beyond {@link #MAX_CAPACITY} are rejected, which keeps sums of up to {@code 64} weights within a long.
+ */
+final class FixedPointPackage {
+
+    static final long MAX_CAPACITY = Long.MAX_VALUE >> 6;
+    static final int MAX_DENSE_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final int weightLimit;
+    private final long capacity;
+    private final List<Item> items;
+    private final long[] weights;
+    private final long[] costs;
+
+    private FixedPointPackage(final int weightLimit, final long capacity, final List<Item> items, final long[] weights, final long[] costs) {
+        this.weightLimit = weightLimit;
+        this.capacity = capacity;
+        this.items = items;
+        this.weights = weights;
+        this.costs = costs;
+    }
+
+    static FixedPointPackage of(final InboundPackage inboundPackage) {
+        final List<Item> items = inboundPackage.filteredItems();
+        final int weightScale = scaleOf(items, true);
+        final int costScale = scaleOf(items, false);
+
+        final int size = items.size();
+        final BigDecimal scaledLimit = BigDecimal.valueOf(inboundPackage.weightLimit()).movePointRight(weightScale);
+        if (scaledLimit.compareTo(BigDecimal.valueOf(MAX_CAPACITY)) > 0) {
+            throw new PackerValidationException("Weight limit " + inboundPackage.weightLimit() + " cannot be solved exactly with "
+                    + weightScale + " weight decimals");
+        }
+        final long capacity = scaledLimit.longValueExact();
+
+        final long[] weights = new long[size];
+        final long[] costs = new long[size];
+        for (int i = 0; i < size; i++) {
+            final Item item = items.get(i);
+            weights[i] = item.weight().movePointRight(weightScale).longValueExact();
+            costs[i] = item.cost().movePointRight(costScale).longValueExact();
+        }
+
+        return new FixedPointPackage(inboundPackage.weightLimit(), capacity, items, weights, costs);
+    }
+
+    private static int scaleOf(final List<Item> items, final boolean weight) {
+        int scale = 0;
+        for (final Item item : items) {
+            final BigDecimal value = weight ? item.weight() : item.cost();
+            scale = Math.max(scale, value.stripTrailingZeros().scale());
+        }
+        return scale;
+    }
+
+    int weightLimit() {
+        return this.weightLimit;
+    }
+
+    long capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Whether a DP row of {@code capacity + 1} cells can be allocated.
+     */
+    boolean hasDenseCapacity() {
+        return this.capacity <= MAX_DENSE_CAPACITY;
+    }
+
+    /**
+     * Capacity of the dense engines, whose weights then fit into an int as well since no kept item outweighs the package.
+     */
+    int denseCapacity() {
+        if (!this.hasDenseCapacity()) {
+            throw new IllegalStateException("Capacity is too large for a dense table: " + this.capacity);
+        }
+        return (int) this.capacity;
+    }
+
+    /**
+     * Bytes of one DP row of {@code capacity + 1} longs, or {@link Long#MAX_VALUE} when that overflows.
+     */
+    long rowBytes() {
+        return this.capacity >= Long.MAX_VALUE / Long.BYTES ? Long.MAX_VALUE : (this.capacity + 1) * Long.BYTES;
+    }
+
+    /**
+     * Cells of the dense table, {@code size * (capacity + 1)}, or {@link Long#MAX_VALUE} when that overflows.
+     */
+    long cells() {
+        final long rowLength = this.capacity + 1;
+        return this.size() > Long.MAX_VALUE / rowLength ? Long.MAX_VALUE : this.size() * rowLength;
+    }
+
+    int size() {
+        return this.items.size();
+    }
+
+    long weight(final int position) {
+        return this.weights[position];
+    }
+
+    long cost(final int position) {
+        return this.costs[position];
+    }
+
+    Item item(final int position) {
+        return this.items.get(position);
+    }
+
+    OptimizedPackage toOptimizedPackage(final BitSet selection) {
+        final List<Item> selectedItems = new ArrayList<>(selection.cardinality());
+        for (int position = selection.nextSetBit(0); position >= 0; position = selection.nextSetBit(position + 1)) {
+            selectedItems.add(this.items.get(position));
+        }
+        selectedItems.sort(null);
+
+        return new OptimizedPackage(this.weightLimit, selectedItems);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mobiquity.packer.impl;
+
+/**
+ * Exact engine of a dense solver whose tables must fit into a memory budget in bytes:
+ * <ul>
+ *     <li>{@link #DENSE} while the DP rows of the dense engine and its {@code size * (capacity + 1)} decision bits fit;</li>
+ *     <li>{@link #RECURSIVE} while the {@code 1 + ceil(log2 size)} rows of {@link RecursiveKnapsackEngine} and one decision
+ *     row fit;</li>
+ *     <li>{@link #PARETO} otherwise, including capacities too large for a dense row at all.</li>
+ * </ul>
+ */
+enum KnapsackPlan {
+    DENSE,
+    RECURSIVE,
+    PARETO;
+
+    static KnapsackPlan of(final FixedPointPackage fixedPointPackage, final long memoryBudget) {
+        return of(fixedPointPackage, memoryBudget, 1);
+    }
+
+    /**
+     * Plan for a dense engine keeping {@code denseRows} DP rows next to its decision bits.
+     */
+    static KnapsackPlan of(final FixedPointPackage fixedPointPackage, final long memoryBudget, final int denseRows) {
+        if (!fixedPointPackage.hasDenseCapacity()) {
+            return PARETO;
+        }
+        if (denseBytes(fixedPointPackage, denseRows) <= memoryBudget) {
+            return DENSE;
+        }
+        return recursiveBytes(fixedPointPackage) <= memoryBudget ? RECURSIVE : PARETO;
+    }
+
+    /**
+     * Decision bits the leaves of {@link RecursiveKnapsackEngine} may keep once its rows are accounted for.
+     */
+    static long recursiveLeafBudgetBits(final FixedPointPackage fixedPointPackage, final long memoryBudget) {
+        final long remaining = memoryBudget - recursiveBytes(fixedPointPackage);
+        return remaining > Long.MAX_VALUE / Byte.SIZE ? Long.MAX_VALUE : Math.max(1, remaining * Byte.SIZE);
+    }
+
+    static long denseBytes(final FixedPointPackage fixedPointPackage, final int rows) {
+        return saturatedAdd(rowsBytes(fixedPointPackage.rowBytes(), rows), decisionBytes(fixedPointPackage.cells()));
+    }
+
+    /**
+     * Bytes of a dense table of {@code size} items over {@code capacity}, for solvers that do not build a
+     * {@link FixedPointPackage}.
+     */
+    static long denseBytes(final int size, final long capacity, final int rows) {
+        if (capacity >= Long.MAX_VALUE / Long.BYTES) {
+            return Long.MAX_VALUE;
+        }
+        final long rowLength = capacity + 1;
+        final long cells = size > Long.MAX_VALUE / rowLength ? Long.MAX_VALUE : size * rowLength;
+        return saturatedAdd(rowsBytes(rowLength * Long.BYTES, rows), decisionBytes(cells));
+    }
+
+    static long recursiveBytes(final FixedPointPackage fixedPointPackage) {
+        final int rows = 1 + ceilLog2(fixedPointPackage.size());
+        return saturatedAdd(rowsBytes(fixedPointPackage.rowBytes(), rows), decisionBytes(fixedPointPackage.capacity() + 1));
+    }
+
+    private static long rowsBytes(final long rowBytes, final int rows) {
+        return rowBytes > Long.MAX_VALUE / rows ? Long.MAX_VALUE : rowBytes * rows;
+    }
+
+    private static long decisionBytes(final long bits) {
+        return (bits >>> 6) * Long.BYTES + ((bits & 63) == 0 ? 0 : Long.BYTES);
+    }
+
+    private static int ceilLog2(final int value) {
+        return value <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(value - 1);
+    }
+
+    private static long saturatedAdd(final long left, final long right) {
+        return left > Long.MAX_VALUE - right ? Long.MAX_VALUE : left + right;
+    }
+}
@@ -0,0 +1,275 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.SolverSession;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental form of {@link DenseKnapsackEngine}. The session keeps the rolling DP row, one decision row per item and a
+ * copy of the DP row every {@link #CHECKPOINT_INTERVAL} items, built for the largest capacity seen so far:
+ * <ul>
+ *     <li>an appended item computes a single row;</li>
+ *     <li>a removed item recomputes the rows from the checkpoint before it;</li>
+ *     <li>a limit within the built capacity only backtracks again, since the cells up to any capacity do not depend on the
+ *     cells above it.</li>
+ * </ul>
+ * Everything is rebuilt when a limit exceeds the built capacity or an item needs a finer fixed-point scale. While these
+ * tables would not fit into the memory budget, or the capacity is too large for a dense row, the session keeps only the
+ * items and solves them from scratch with {@link KnapsackSolver}.
+ */
+public final class KnapsackSession implements SolverSession {
+
+    static final int CHECKPOINT_INTERVAL = 32;
+
+    private static final int NOT_FITTING = -1;
+
+    public static SolverSession newInstance(final InboundPackage inboundPackage, final PackerMetrics metrics) {
+        return newInstance(inboundPackage, metrics, KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static SolverSession newInstance(final InboundPackage inboundPackage, final PackerMetrics metrics, final long memoryBudget) {
+        final KnapsackSession session = new KnapsackSession(inboundPackage.weightLimit(), metrics, memoryBudget);
+        session.items.addAll(inboundPackage.items());
+        session.rebuild();
+        return session;
+    }
+
+    private final PackerMetrics metrics;
+    private final long memoryBudget;
+    private final PackageSolver fullSolver;
+    private final List<Item> items = new ArrayList<>();
+    private final List<long[]> decisions = new ArrayList<>();
+    private final List<long[]> checkpoints = new ArrayList<>();
+    private int weightLimit;
+    private int weightScale;
+    private int costScale;
+    private int capacity;
+    private int[] weights = new int[0];
+    private long[] costs = new long[0];
+    private long[] dp;
+    private boolean delegated;
+
+    private KnapsackSession(final int weightLimit, final PackerMetrics metrics, final long memoryBudget) {
+        this.weightLimit = weightLimit;
+        this.metrics = metrics;
+        this.memoryBudget = memoryBudget;
+        this.fullSolver = KnapsackSolver.newInstance(metrics, memoryBudget);
+    }
+
+    @Override
+    public InboundPackage inboundPackage() {
+        return new InboundPackage(this.weightLimit, List.copyOf(this.items));
+    }
+
+    @Override
+    public void addItem(final Item item) {
+        this.items.add(item);
+        if (this.delegated) {
+            return;
+        }
+        if ((this.fits(item) && scaleOf(item.weight()) > this.weightScale) || scaleOf(item.cost()) > this.costScale
+                || tableBytes(this.items.size(), this.capacity) > this.memoryBudget) {
+            this.rebuild();
+            return;
+        }
+
+        final int position = this.items.size() - 1;
+        this.ensureCapacity(this.items.size());
+        this.weights[position] = this.toWeight(item);
+        this.costs[position] = item.cost().movePointRight(this.costScale).longValueExact();
+        this.advance(position, true);
+    }
+
+    @Override
+    public boolean removeItem(final int index) {
+        int position = 0;
+        while (position < this.items.size() && this.items.get(position).index() != index) {
+            position++;
+        }
+        if (position == this.items.size()) {
+            return false;
+        }
+
+        this.items.remove(position);
+        if (this.delegated) {
+            this.rebuild();
+            return true;
+        }
+        System.arraycopy(this.weights, position + 1, this.weights, position, this.items.size() - position);
+        System.arraycopy(this.costs, position + 1, this.costs, position, this.items.size() - position);
+
+        final int checkpoint = position / CHECKPOINT_INTERVAL;
+        this.dp = this.checkpoints.get(checkpoint);
+        this.checkpoints.subList(checkpoint, this.checkpoints.size()).clear();
+        this.decisions.subList(position, this.decisions.size()).clear();
+        for (int i = checkpoint * CHECKPOINT_INTERVAL; i < this.items.size(); i++) {
+            this.advance(i, i >= position);
+        }
+        return true;
+    }
+
+    @Override
+    public void setWeightLimit(final int weightLimit) {
+        this.weightLimit = weightLimit;
+        if (this.delegated || this.scaledLimit() > this.capacity || this.requiredWeightScale() > this.weightScale) {
+            this.rebuild();
+        }
+    }
+
+    @Override
+    public OptimizedPackage solve() {
+        if (this.delegated) {
+            return this.fullSolver.solve(this.inboundPackage());
+        }
+        final int limit = (int) this.scaledLimit();
+
+        final List<Item> selectedItems = new ArrayList<>();
+        int w = DenseKnapsackEngine.lightestOptimalCapacity(this.dp, limit);
+        for (int i = this.items.size() - 1; i >= 0 && w > 0; i--) {
+            final long[] row = this.decisions.get(i);
+            if (row != null && DenseKnapsackEngine.isBitSet(row, w)) {
+                selectedItems.add(this.items.get(i));
+                w -= this.weights[i];
+            }
+        }
+        selectedItems.sort(null);
+
+        return new OptimizedPackage(this.weightLimit, selectedItems);
+    }
+
+    private void rebuild() {
+        this.weightScale = this.requiredWeightScale();
+        this.costScale = 0;
+        for (final Item item : this.items) {
+            this.costScale = Math.max(this.costScale, scaleOf(item.cost()));
+        }
+        final long requiredCapacity = this.scaledLimit();
+        this.delegated = requiredCapacity > FixedPointPackage.MAX_DENSE_CAPACITY
+                || tableBytes(this.items.size(), requiredCapacity) > this.memoryBudget;
+        if (this.delegated) {
+            this.dp = null;
+            this.decisions.clear();
+            this.checkpoints.clear();
+            return;
+        }
+        this.capacity = (int) requiredCapacity;
+
+        this.ensureCapacity(this.items.size());
+        for (int i = 0; i < this.items.size(); i++) {
+            this.weights[i] = this.toWeight(this.items.get(i));
+            this.costs[i] = this.items.get(i).cost().movePointRight(this.costScale).longValueExact();
+        }
+
+        this.dp = new long[this.capacity + 1];
+        this.decisions.clear();
+        this.checkpoints.clear();
+        for (int i = 0; i < this.items.size(); i++) {
+            this.advance(i, true);
+        }
+    }
+
+    /**
+     * Applies the item at {@code position} to the DP row, recording its decision row unless it is being replayed.
+     */
+    private void advance(final int position, final boolean record) {
+        if (position % CHECKPOINT_INTERVAL == 0) {
+            this.checkpoints.add(this.dp.clone());
+        }
+
+        final int weight = this.weights[position];
+        if (weight == NOT_FITTING) {
+            if (record) {
+                this.decisions.add(null);
+            }
+            return;
+        }
+
+        final long cost = this.costs[position];
+        final long[] row = record ? new long[DenseKnapsackEngine.wordCount(this.capacity + 1L)] : null;
+        for (int w = this.capacity; w >= weight; w--) {
+            final long costWithItem = this.dp[w - weight] + cost;
+            if (costWithItem > this.dp[w]) {
+                this.dp[w] = costWithItem;
+                if (row != null) {
+                    DenseKnapsackEngine.setBit(row, w);
+                }
+            }
+        }
+        if (record) {
+            this.decisions.add(row);
+        }
+        this.metrics.increment(Counter.DP_CELLS, this.capacity + 1L);
+    }
+
+    /**
+     * Weight limit at the current weight scale, or {@link Long#MAX_VALUE} when that does not fit into a long.
+     */
+    private long scaledLimit() {
+        final BigDecimal scaledLimit = BigDecimal.valueOf(this.weightLimit).movePointRight(this.weightScale);
+        return scaledLimit.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : scaledLimit.longValueExact();
+    }
+
+    /**
+     * Bytes of the DP row, its checkpoints and the decision rows of {@code size} items over {@code capacity}, or
+     * {@link Long#MAX_VALUE} when that overflows.
+     */
+    private static long tableBytes(final int size, final long capacity) {
+        if (capacity >= Long.MAX_VALUE / Long.BYTES) {
+            return Long.MAX_VALUE;
+        }
+        final long rows = 1 + (size + CHECKPOINT_INTERVAL - 1L) / CHECKPOINT_INTERVAL;
+        final long rowBytes = (capacity + 1) * Long.BYTES;
+        final long decisionRowBytes = ((capacity + Long.SIZE) >>> 6) * Long.BYTES;
+        if (rowBytes > Long.MAX_VALUE / 2 / rows || decisionRowBytes > Long.MAX_VALUE / 2 / Math.max(1, size)) {
+            return Long.MAX_VALUE;
+        }
+        return rows * rowBytes + size * decisionRowBytes;
+    }
+
+    private int requiredWeightScale() {
+        int scale = 0;
+        for (final Item item : this.items) {
+            if (this.fits(item)) {
+                scale = Math.max(scale, scaleOf(item.weight()));
+            }
+        }
+        return scale;
+    }
+
+    private boolean fits(final Item item) {
+        return item.weight().compareTo(BigDecimal.valueOf(this.weightLimit)) <= 0;
+    }
+
+    /**
+     * Fixed-point weight of the item, or {@link #NOT_FITTING} when it exceeds the built capacity or cannot be represented
+     * at the current scale; such items are heavier than the current limit.
+     */
+    private int toWeight(final Item item) {
+        final BigDecimal weight = item.weight().movePointRight(this.weightScale);
+        if (scaleOf(weight) > 0 || weight.compareTo(BigDecimal.valueOf(this.capacity)) > 0) {
+            return NOT_FITTING;
+        }
+        return weight.intValueExact();
+    }
+
+    private void ensureCapacity(final int size) {
+        if (size > this.weights.length) {
+            final int length = Math.max(size, this.weights.length * 2);
+            this.weights = Arrays.copyOf(this.weights, length);
+            this.costs = Arrays.copyOf(this.costs, length);
+        }
+    }
+
+    private static int scaleOf(final BigDecimal value) {
+        return Math.max(0, value.stripTrailingZeros().scale());
+    }
+}
@@ -1,87 +1,61 @@
 package com.mobiquity.packer.impl;
 
 import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
 import com.mobiquity.packer.model.InboundPackage;
-import com.mobiquity.packer.model.Item;
 import com.mobiquity.packer.model.OptimizedPackage;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TreeSet;
+import java.util.BitSet;
 
+/**
+ * Dense DP solver whose tables are kept within a memory budget in bytes, by default three quarters of the maximum heap.
+ * The whole table of decision bits is kept while it fits next to the DP row, and otherwise the selection is reconstructed
+ * with {@link RecursiveKnapsackEngine} over a few DP rows. Packages whose rows do not fit either are solved by the
+ * {@link ParetoFrontierEngine}, which returns the same selection; see {@link KnapsackPlan}.
+ */
 public final class KnapsackSolver implements PackageSolver {
 
+    public static final long DEFAULT_MEMORY_BUDGET = Runtime.getRuntime().maxMemory() / 4 * 3;
+
     public static PackageSolver getInstance() {
-        return new KnapsackSolver();
+        return new KnapsackSolver(PackerMetrics.noop(), DEFAULT_MEMORY_BUDGET);
     }
 
-    private KnapsackSolver() {
+    public static PackageSolver newInstance(final PackerMetrics metrics) {
+        return new KnapsackSolver(metrics, DEFAULT_MEMORY_BUDGET);
     }
 
-    @Override
-    public OptimizedPackage solve(final InboundPackage inboundPackage) {
-        final int weightLimit = inboundPackage.weightLimit();
-        final List<Item> items = inboundPackage.filteredItems();
-
-        final BigDecimal[][] dp = this.calculateDPTable(items, weightLimit);
-
-        final List<Item> selectedItems = this.findSelectedItems(items, dp);
-
-        return new OptimizedPackage(weightLimit, selectedItems);
-    }
-
-    private BigDecimal[][] calculateDPTable(final List<Item> items, final int weightLimit) {
-        final int itemSize = items.size();
-        final BigDecimal[][] dp = new BigDecimal[itemSize + 1][weightLimit + 1];
-
-        for (int i = 0; i <= itemSize; i++) {
-            for (int w = 0; w <= weightLimit; w++) {
-                if (i == 0 || w == 0) {
-                    dp[i][w] = BigDecimal.ZERO;
-                } else {
-                    final Item currentItem = items.get(i - 1);
-                    if (currentItem.weight().compareTo(BigDecimal.valueOf(w)) <= 0) {
-                        final BigDecimal costWithItem = currentItem.cost().add(dp[i - 1][w - currentItem.weight().intValue()]);
-                        final BigDecimal costWithoutItem = dp[i - 1][w];
-                        dp[i][w] = costWithItem.max(costWithoutItem);
-                    } else {
-                        dp[i][w] = dp[i - 1][w];
-                    }
-                }
-            }
+    public static PackageSolver newInstance(final PackerMetrics metrics, final long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudget);
         }
-
-        return dp;
+        return new KnapsackSolver(metrics, memoryBudget);
     }
 
-    private List<Item> findSelectedItems(final List<Item> items, final BigDecimal[][] dp) {
-        final TreeSet<Item> selectedItems = new TreeSet<>();
-        int i = items.size();
-        int w = dp[0].length - 1;
-
-        while (i > 0 && w > 0) {
-            final BigDecimal currentCell = dp[i][w];
-            final BigDecimal prevCell = dp[i - 1][w];
-
-            if (currentCell.compareTo(prevCell) != 0 || (currentCell.compareTo(prevCell) == 0 && this.isLeastWeightAmongTheSameCostsItems(items, i))) {
-                selectedItems.add(items.get(i - 1));
-                w -= items.get(i - 1).weight().intValue();
-            }
-
-            i--;
-        }
+    private final PackerMetrics metrics;
+    private final long memoryBudget;
 
-        return new ArrayList<>(selectedItems);
+    private KnapsackSolver(final PackerMetrics metrics, final long memoryBudget) {
+        this.metrics = metrics;
+        this.memoryBudget = memoryBudget;
     }
 
-    private boolean isLeastWeightAmongTheSameCostsItems(final List<Item> items, final int currentIndex) {
-        if (currentIndex >= 2) {
-            final Item currentItem = items.get(currentIndex - 1);
-            final Item prevItem = items.get(currentIndex - 2);
-            return currentItem.cost().compareTo(prevItem.cost()) == 0 && currentItem.weight().compareTo(prevItem.weight()) <= 0;
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+
+        final KnapsackPlan plan = KnapsackPlan.of(fixedPointPackage, this.memoryBudget);
+        final BitSet selection = switch (plan) {
+            case DENSE -> DenseKnapsackEngine.select(fixedPointPackage);
+            case RECURSIVE -> RecursiveKnapsackEngine.select(fixedPointPackage,
+                    KnapsackPlan.recursiveLeafBudgetBits(fixedPointPackage, this.memoryBudget));
+            case PARETO -> ParetoFrontierEngine.select(fixedPointPackage, this.memoryBudget);
+        };
+        if (plan != KnapsackPlan.PARETO) {
+            this.metrics.increment(Counter.DP_CELLS, fixedPointPackage.cells());
         }
-        return false;
+
+        return fixedPointPackage.toOptimizedPackage(selection);
     }
 }
-
@@ -0,0 +1,44 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.util.BitSet;
+
+/**
+ * Solver for packages far beyond the challenge limits. Instances whose dense table fits into {@code denseCellLimit}
+ * cells and into the default memory budget of {@link KnapsackSolver} use {@link DenseKnapsackEngine}, larger ones use the
+ * sparse {@link ParetoFrontierEngine}.
+ */
+public final class LargeInstanceSolver implements PackageSolver {
+
+    private static final long DEFAULT_DENSE_CELL_LIMIT = 1L << 28;
+
+    public static PackageSolver getInstance() {
+        return new LargeInstanceSolver(DEFAULT_DENSE_CELL_LIMIT);
+    }
+
+    public static PackageSolver newInstance(final long denseCellLimit) {
+        return new LargeInstanceSolver(denseCellLimit);
+    }
+
+    private final long denseCellLimit;
+
+    private LargeInstanceSolver(final long denseCellLimit) {
+        this.denseCellLimit = denseCellLimit;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        final long denseCells = fixedPointPackage.cells();
+
+        final BitSet selection = denseCells <= this.denseCellLimit
+                && KnapsackPlan.of(fixedPointPackage, KnapsackSolver.DEFAULT_MEMORY_BUDGET) == KnapsackPlan.DENSE
+                ? DenseKnapsackEngine.select(fixedPointPackage)
+                : ParetoFrontierEngine.select(fixedPointPackage);
+
+        return fixedPointPackage.toOptimizedPackage(selection);
+    }
+}
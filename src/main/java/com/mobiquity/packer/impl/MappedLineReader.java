@@ -0,0 +1,126 @@
+package com.mobiquity.packer.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Walks the lines of a file through read-only memory-mapped regions. Lines end at {@code \n}, {@code \r} or
+ * {@code \r\n} like {@link java.io.BufferedReader#readLine()}, and a line crossing a region boundary causes the next region
+ * to be mapped from the start of that line.
+ */
+final class MappedLineReader implements Closeable {
+
+    static final int DEFAULT_REGION_SIZE = 1 << 26;
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+
+    private MappedLineReader(final FileChannel channel, final long fileSize, final int regionSize) {
+        this.channel = channel;
+        this.fileSize = fileSize;
+        this.regionSize = regionSize;
+    }
+
+    static MappedLineReader open(final Path path, final int regionSize) throws IOException {
+        return open(path, 0, regionSize);
+    }
+
+    static MappedLineReader open(final Path path, final long offset, final int regionSize) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final MappedLineReader reader = new MappedLineReader(channel, channel.size(), regionSize);
+            reader.map(Math.min(offset, reader.fileSize));
+            return reader;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    boolean nextLine() throws IOException {
+        while (this.regionStart + this.position < this.fileSize) {
+            final int limit = this.region.limit();
+            final boolean lastRegion = this.regionStart + limit >= this.fileSize;
+            final int end = this.findLineEnd(this.position, limit);
+
+            if (end < 0 || (!lastRegion && end == limit - 1 && this.region.get(end) == CARRIAGE_RETURN)) {
+                if (lastRegion) {
+                    this.lineStart = this.position;
+                    this.lineEnd = limit;
+                    this.position = limit;
+                    return true;
+                }
+                if (this.position == 0) {
+                    throw new IOException("Line at offset " + this.regionStart + " is longer than " + this.regionSize + " bytes");
+                }
+                this.map(this.regionStart + this.position);
+                continue;
+            }
+
+            this.lineStart = this.position;
+            this.lineEnd = end;
+            this.position = end + 1;
+            if (this.region.get(end) == CARRIAGE_RETURN && this.position < limit && this.region.get(this.position) == LINE_FEED) {
+                this.position++;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    MappedByteBuffer buffer() {
+        return this.region;
+    }
+
+    int lineStart() {
+        return this.lineStart;
+    }
+
+    int lineEnd() {
+        return this.lineEnd;
+    }
+
+    long lineOffset() {
+        return this.regionStart + this.lineStart;
+    }
+
+    long nextLineOffset() {
+        return this.regionStart + this.position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private int findLineEnd(final int from, final int limit) {
+        for (int i = from; i < limit; i++) {
+            final byte current = this.region.get(i);
+            if (current == LINE_FEED || current == CARRIAGE_RETURN) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void map(final long start) throws IOException {
+        final long length = Math.min(this.regionSize, this.fileSize - start);
+        this.region = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        this.regionStart = start;
+        this.position = 0;
+    }
+}
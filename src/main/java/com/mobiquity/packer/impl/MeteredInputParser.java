@@ -0,0 +1,47 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.model.InboundPackage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+public final class MeteredInputParser implements InputParser {
+
+    public static InputParser newInstance(final InputParser delegate, final PackerMetrics metrics) {
+        return new MeteredInputParser(delegate, metrics);
+    }
+
+    private final InputParser delegate;
+    private final PackerMetrics metrics;
+
+    private MeteredInputParser(final InputParser delegate, final PackerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public InboundPackage parse(final String input) {
+        final long start = System.nanoTime();
+        try {
+            return this.record(this.delegate.parse(input));
+        } finally {
+            this.metrics.recordLatency(Stage.PARSE, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Stream<InboundPackage> parse(final Path path) throws IOException {
+        return MeteredPackageReader.newInstance(this.delegate::parse, this.metrics).read(path);
+    }
+
+    private InboundPackage record(final InboundPackage inboundPackage) {
+        this.metrics.increment(Counter.LINES, 1);
+        this.metrics.increment(Counter.ITEMS, inboundPackage.items().size());
+        return inboundPackage;
+    }
+}
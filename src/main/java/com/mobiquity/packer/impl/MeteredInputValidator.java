@@ -0,0 +1,75 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.exception.PackerValidationException;
+import com.mobiquity.packer.InputValidator;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+
+public final class MeteredInputValidator implements InputValidator {
+
+    public static InputValidator newInstance(final InputValidator delegate, final PackerMetrics metrics) {
+        return new MeteredInputValidator(delegate, metrics);
+    }
+
+    private final InputValidator delegate;
+    private final PackerMetrics metrics;
+
+    private MeteredInputValidator(final InputValidator delegate, final PackerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Matcher createPackageLineMatcher(final String line) {
+        return this.validate(() -> this.delegate.createPackageLineMatcher(line));
+    }
+
+    @Override
+    public Matcher createItemLineMatcher(final String items) {
+        return this.delegate.createItemLineMatcher(items);
+    }
+
+    @Override
+    public int maxItems() {
+        return this.delegate.maxItems();
+    }
+
+    @Override
+    public void validatePackageWeightLimit(final int weight) {
+        this.validate(() -> this.delegate.validatePackageWeightLimit(weight));
+    }
+
+    @Override
+    public void validateItemWeightLimit(final BigDecimal weight, final int itemIndex) {
+        this.validate(() -> this.delegate.validateItemWeightLimit(weight, itemIndex));
+    }
+
+    @Override
+    public void validateItemCost(final BigDecimal cost, final int itemIndex) {
+        this.validate(() -> this.delegate.validateItemCost(cost, itemIndex));
+    }
+
+    private void validate(final Runnable validation) {
+        this.validate(() -> {
+            validation.run();
+            return null;
+        });
+    }
+
+    private <T> T validate(final Supplier<T> validation) {
+        final long start = System.nanoTime();
+        try {
+            return validation.get();
+        } catch (final PackerValidationException e) {
+            this.metrics.increment(Counter.VALIDATION_FAILURES, 1);
+            throw e;
+        } finally {
+            this.metrics.recordLatency(Stage.VALIDATE, System.nanoTime() - start);
+        }
+    }
+}
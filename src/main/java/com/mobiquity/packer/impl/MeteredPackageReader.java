@@ -0,0 +1,64 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageReader;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.model.InboundPackage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class MeteredPackageReader implements PackageReader {
+
+    public static PackageReader newInstance(final PackageReader delegate, final PackerMetrics metrics) {
+        return new MeteredPackageReader(delegate, metrics);
+    }
+
+    private final PackageReader delegate;
+    private final PackerMetrics metrics;
+
+    private MeteredPackageReader(final PackageReader delegate, final PackerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Stream<InboundPackage> read(final Path path) throws IOException {
+        this.metrics.increment(Counter.BYTES_READ, Files.size(path));
+
+        final Stream<InboundPackage> inboundPackages = this.delegate.read(path);
+        final Iterator<InboundPackage> iterator = inboundPackages.iterator();
+        final Iterator<InboundPackage> meteredIterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InboundPackage next() {
+                final long start = System.nanoTime();
+                try {
+                    return MeteredPackageReader.this.record(iterator.next());
+                } finally {
+                    MeteredPackageReader.this.metrics.recordLatency(Stage.PARSE, System.nanoTime() - start);
+                }
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(meteredIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(inboundPackages::close);
+    }
+
+    private InboundPackage record(final InboundPackage inboundPackage) {
+        this.metrics.increment(Counter.LINES, 1);
+        this.metrics.increment(Counter.ITEMS, inboundPackage.items().size());
+        return inboundPackage;
+    }
+}
@@ -0,0 +1,35 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+public final class MeteredPackageSolver implements PackageSolver {
+
+    public static PackageSolver newInstance(final PackageSolver delegate, final PackerMetrics metrics) {
+        return new MeteredPackageSolver(delegate, metrics);
+    }
+
+    private final PackageSolver delegate;
+    private final PackerMetrics metrics;
+
+    private MeteredPackageSolver(final PackageSolver delegate, final PackerMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        this.metrics.increment(Counter.FILTERED_ITEMS, inboundPackage.items().size() - inboundPackage.filteredItems().size());
+
+        final long start = System.nanoTime();
+        try {
+            return this.delegate.solve(inboundPackage);
+        } finally {
+            this.metrics.recordLatency(Stage.SOLVE, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Packs many input files into one output file each, under the same file name in the output directory. Every file is cut
+ * into chunks of whole lines of about {@code chunkSize} bytes, and all files are solved as one fork-join task tree, so
+ * idle workers steal chunks of a giant file instead of waiting for it. Solved chunks are appended to their output as soon
+ * as all the chunks before them are written.
+ * <p>
+ * A file is solved in windows of {@value #CHUNKS_IN_FLIGHT_PER_WORKER} chunks per worker, so at most one window of
+ * solved chunks waits for an earlier one, and its output is only open from its first solved chunk to its last.
+ * <p>
+ * A file with a failing line is reported in {@link Result#failures()} and has no output, while the other files carry on.
+ */
+public final class MultiFilePacker {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final String LINE_SEPARATOR = "\n";
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int SCAN_BUFFER_SIZE = 1 << 13;
+    private static final int CHUNKS_IN_FLIGHT_PER_WORKER = 4;
+
+    public static MultiFilePacker getInstance() {
+        return newInstance(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, PackerMetrics.getDefaultInstance());
+    }
+
+    public static MultiFilePacker newInstance(final ForkJoinPool pool, final int chunkSize, final PackerMetrics metrics) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        return new MultiFilePacker(pool, chunkSize, metrics);
+    }
+
+    public static void main(final String[] args) throws APIException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: MultiFilePacker <input file or directory> [glob] <output directory>");
+            System.exit(2);
+        }
+        final Result result = args.length == 2
+                ? getInstance().pack(Path.of(args[0]), Path.of(args[1]))
+                : getInstance().pack(Path.of(args[0]), args[1], Path.of(args[2]));
+        System.out.println(result.toText());
+        result.failures().forEach((input, failure) -> System.err.println(input + ": " + failure));
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int chunksInFlight;
+    private final PackerMetrics metrics;
+    private final InputParser inputParser;
+    private final PackageSolver packageSolver;
+
+    private MultiFilePacker(final ForkJoinPool pool, final int chunkSize, final PackerMetrics metrics) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.chunksInFlight = pool.getParallelism() * CHUNKS_IN_FLIGHT_PER_WORKER;
+        this.metrics = metrics;
+        this.inputParser = InputParser.getDefaultInstance(metrics);
+        this.packageSolver = PackageSolver.getDefaultInstance(metrics);
+    }
+
+    /**
+     * Packs a single file, or every regular file directly inside a directory.
+     */
+    public Result pack(final Path input, final Path outputDirectory) throws APIException {
+        return Files.isDirectory(input) ? this.pack(input, "*", outputDirectory) : this.pack(List.of(input), outputDirectory);
+    }
+
+    public Result pack(final Path directory, final String glob, final Path outputDirectory) throws APIException {
+        final List<Path> inputs = new ArrayList<>();
+        try (final DirectoryStream<Path> paths = Files.newDirectoryStream(directory, glob)) {
+            for (final Path path : paths) {
+                if (Files.isRegularFile(path)) {
+                    inputs.add(path);
+                }
+            }
+        } catch (final IOException e) {
+            throw new APIException("Exception has been occurred while listing the directory" + directory, e);
+        }
+        Collections.sort(inputs);
+        return this.pack(inputs, outputDirectory);
+    }
+
+    public Result pack(final List<Path> inputs, final Path outputDirectory) throws APIException {
+        final long start = System.nanoTime();
+        final List<FileJob> jobs = new ArrayList<>(inputs.size());
+        try {
+            Files.createDirectories(outputDirectory);
+            final Set<Path> outputs = new HashSet<>();
+            for (final Path input : inputs) {
+                final Path output = outputDirectory.resolve(input.getFileName());
+                if (!outputs.add(output) || Files.exists(output) && Files.isSameFile(input, output)) {
+                    throw new IllegalArgumentException("Output " + output + " would overwrite an input or another output");
+                }
+            }
+            for (final Path input : inputs) {
+                jobs.add(this.split(input, outputDirectory.resolve(input.getFileName())));
+            }
+
+            this.pool.invoke(new FileTask(jobs, 0, jobs.size()));
+
+            final Map<Path, Exception> failures = new LinkedHashMap<>();
+            long lines = 0;
+            long bytes = 0;
+            for (final FileJob job : jobs) {
+                final Exception failure = job.finish();
+                if (failure == null) {
+                    lines += job.lines.sum();
+                    bytes += job.size;
+                } else {
+                    failures.put(job.input, failure);
+                }
+            }
+            return new Result(jobs.size(), lines, bytes, System.nanoTime() - start, Collections.unmodifiableMap(failures));
+        } catch (final IOException e) {
+            throw new APIException("Exception has been occurred while preparing the outputs in " + outputDirectory, e);
+        } finally {
+            for (final FileJob job : jobs) {
+                job.close();
+            }
+            this.metrics.recordLatency(Stage.RUN, System.nanoTime() - start);
+            this.metrics.runCompleted();
+        }
+    }
+
+    /**
+     * Cuts the input at the first line start at least {@code chunkSize} bytes after the previous cut, so no chunk is empty.
+     */
+    private FileJob split(final Path input, final Path output) throws IOException {
+        try (final FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final List<Long> boundaries = new ArrayList<>();
+            boundaries.add(0L);
+            long boundary = 0;
+            while (boundary < size) {
+                boundary = nextLineStart(channel, boundary + this.chunkSize, size);
+                boundaries.add(boundary);
+            }
+
+            final FileJob job = new FileJob(input, output, size, boundaries.size() - 1);
+            for (int i = 0; i + 1 < boundaries.size(); i++) {
+                job.chunks.add(new Chunk(job, i, boundaries.get(i), boundaries.get(i + 1)));
+            }
+            this.metrics.increment(Counter.BYTES_READ, size);
+            return job;
+        }
+    }
+
+    private static long nextLineStart(final FileChannel channel, final long from, final long size) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from - 1;
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                final byte current = buffer.get(i);
+                if (current == LINE_FEED || current == CARRIAGE_RETURN) {
+                    long next = position + i + 1;
+                    if (current == CARRIAGE_RETURN && next < size && readByte(channel, next) == LINE_FEED) {
+                        next++;
+                    }
+                    return next;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static byte readByte(final FileChannel channel, final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, position);
+        return buffer.get(0);
+    }
+
+    private void solve(final Chunk chunk) {
+        final FileJob job = chunk.job;
+        if (job.failed()) {
+            return;
+        }
+        // One byte past the chunk lets the reader see whether a trailing carriage return is followed by a line feed.
+        try (final MappedLineReader reader = MappedLineReader.open(job.input, chunk.start,
+                (int) Math.min(MappedLineReader.DEFAULT_REGION_SIZE, chunk.end - chunk.start + 1))) {
+            final StringBuilder text = new StringBuilder();
+            long lines = 0;
+            while (reader.nextLineOffset() < chunk.end && reader.nextLine()) {
+                final String line = StandardCharsets.UTF_8.decode(reader.buffer().slice(reader.lineStart(), reader.lineEnd() - reader.lineStart())).toString();
+                if (lines > 0) {
+                    text.append(LINE_SEPARATOR);
+                }
+                text.append(this.packageSolver.solve(this.inputParser.parse(line)).toText());
+                lines++;
+            }
+            job.lines.add(lines);
+            job.complete(chunk.index, text.toString());
+        } catch (final IOException | RuntimeException e) {
+            job.fail(e);
+        }
+    }
+
+    public record Result(int files, long lines, long bytes, long nanos, Map<Path, Exception> failures) {
+
+        private static final double NANOS_PER_SECOND = 1_000_000_000d;
+        private static final double BYTES_PER_MEGABYTE = 1 << 20;
+
+        public double linesPerSecond() {
+            return this.lines * NANOS_PER_SECOND / Math.max(1, this.nanos);
+        }
+
+        public double megabytesPerSecond() {
+            return this.bytes / BYTES_PER_MEGABYTE * NANOS_PER_SECOND / Math.max(1, this.nanos);
+        }
+
+        public String toText() {
+            return String.format(Locale.ROOT, "%d files (%d failed), %d lines, %d bytes in %.3f s: %.1f lines/s, %.2f MB/s",
+                    this.files, this.failures.size(), this.lines, this.bytes, this.nanos / NANOS_PER_SECOND,
+                    this.linesPerSecond(), this.megabytesPerSecond());
+        }
+    }
+
+    private record Chunk(FileJob job, int index, long start, long end) {
+    }
+
+    /**
+     * Solves the files in {@code [from, to)}, each one window of chunks after the other.
+     */
+    @SuppressWarnings("serial")
+    private final class FileTask extends RecursiveAction {
+
+        private final List<FileJob> jobs;
+        private final int from;
+        private final int to;
+
+        private FileTask(final List<FileJob> jobs, final int from, final int to) {
+            this.jobs = jobs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                if (this.from < this.to) {
+                    final FileJob job = this.jobs.get(this.from);
+                    final int window = MultiFilePacker.this.chunksInFlight;
+                    for (int start = 0; start < job.chunks.size() && !job.failed(); start += window) {
+                        new ChunkTask(job.chunks, start, Math.min(job.chunks.size(), start + window)).invoke();
+                    }
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new FileTask(this.jobs, this.from, middle), new FileTask(this.jobs, middle, this.to));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class ChunkTask extends RecursiveAction {
+
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(final List<Chunk> chunks, final int from, final int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= 1) {
+                if (this.from < this.to) {
+                    MultiFilePacker.this.solve(this.chunks.get(this.from));
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ChunkTask(this.chunks, this.from, middle), new ChunkTask(this.chunks, middle, this.to));
+        }
+    }
+
+    /**
+     * Output of one input file, written chunk by chunk in input order. The output is opened when the first chunk is
+     * solved and closed once the last one is written.
+     */
+    private static final class FileJob {
+
+        private final Path input;
+        private final Path output;
+        private final long size;
+        private final List<Chunk> chunks;
+        private final String[] texts;
+        private final LongAdder lines = new LongAdder();
+
+        private FileChannel channel;
+        private int nextToWrite;
+        private volatile Exception failure;
+
+        private FileJob(final Path input, final Path output, final long size, final int chunkCount) {
+            this.input = input;
+            this.output = output;
+            this.size = size;
+            this.chunks = new ArrayList<>(chunkCount);
+            this.texts = new String[chunkCount];
+        }
+
+        boolean failed() {
+            return this.failure != null;
+        }
+
+        synchronized void complete(final int index, final String text) throws IOException {
+            if (this.failed()) {
+                return;
+            }
+            this.texts[index] = text;
+            if (this.channel == null) {
+                this.channel = FileChannel.open(this.output, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            }
+            while (this.nextToWrite < this.texts.length && this.texts[this.nextToWrite] != null) {
+                final String prefix = this.nextToWrite == 0 ? "" : LINE_SEPARATOR;
+                final ByteBuffer bytes = ByteBuffer.wrap((prefix + this.texts[this.nextToWrite]).getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    this.channel.write(bytes);
+                }
+                this.texts[this.nextToWrite++] = null;
+            }
+            if (this.nextToWrite == this.texts.length) {
+                this.close();
+            }
+        }
+
+        synchronized void fail(final Exception e) {
+            if (this.failure == null) {
+                this.failure = e;
+            }
+        }
+
+        /**
+         * Closes the output, deleting it when one of its chunks failed, and returns that failure. An empty input gets an
+         * empty output.
+         */
+        synchronized Exception finish() {
+            this.close();
+            if (this.failure == null && this.texts.length == 0) {
+                try {
+                    Files.write(this.output, new byte[0]);
+                } catch (final IOException e) {
+                    this.failure = e;
+                }
+            }
+            if (this.failure != null) {
+                try {
+                    Files.deleteIfExists(this.output);
+                } catch (final IOException e) {
+                    this.failure.addSuppressed(e);
+                }
+            }
+            return this.failure;
+        }
+
+        synchronized void close() {
+            if (this.channel == null) {
+                return;
+            }
+            try {
+                this.channel.close();
+            } catch (final IOException e) {
+                this.fail(e);
+            }
+            this.channel = null;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Writes the text of optimized packages, the same as {@link OptimizedPackage#toText()}, as ASCII digits straight into a
+ * reusable direct buffer that is handed to the channel whenever it fills up, so no string is built per package. The
+ * encoder does not own the channel: {@link #flush()} must be called once the last package is encoded.
+ */
+public final class OutputEncoder implements Flushable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int MAX_INDEX_LENGTH = String.valueOf(Integer.MIN_VALUE).length();
+    private static final byte NO_ITEMS = '-';
+    private static final byte MINUS = '-';
+    private static final byte COMMA = ',';
+    private static final byte LINE_FEED = '\n';
+
+    public static OutputEncoder newInstance(final WritableByteChannel channel) {
+        return newInstance(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static OutputEncoder newInstance(final WritableByteChannel channel, final int bufferSize) {
+        if (bufferSize <= MAX_INDEX_LENGTH) {
+            throw new IllegalArgumentException("Buffer size must exceed " + MAX_INDEX_LENGTH + " bytes: " + bufferSize);
+        }
+        return new OutputEncoder(channel, bufferSize);
+    }
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    private OutputEncoder(final WritableByteChannel channel, final int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void encode(final OptimizedPackage optimizedPackage) throws IOException {
+        final List<Item> items = optimizedPackage.items();
+        if (items.isEmpty()) {
+            this.ensureRemaining(1);
+            this.buffer.put(NO_ITEMS);
+            return;
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            this.ensureRemaining(MAX_INDEX_LENGTH + 1);
+            if (i > 0) {
+                this.buffer.put(COMMA);
+            }
+            this.putDigits(items.get(i).index());
+        }
+    }
+
+    public void newLine() throws IOException {
+        this.ensureRemaining(1);
+        this.buffer.put(LINE_FEED);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    private void ensureRemaining(final int length) throws IOException {
+        if (this.buffer.remaining() < length) {
+            this.flush();
+        }
+    }
+
+    private void putDigits(final int index) {
+        long value = index;
+        if (value < 0) {
+            this.buffer.put(MINUS);
+            value = -value;
+        }
+
+        int length = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            length++;
+        }
+        final int start = this.buffer.position();
+        for (int position = start + length - 1; position >= start; position--) {
+            this.buffer.put(position, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        this.buffer.position(start + length);
+    }
+}
@@ -0,0 +1,91 @@
+package com.mobiquity.packer.impl;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link DenseKnapsackEngine} with every DP row split into blocks of capacities that are updated in parallel. Each item
+ * reads the previous row and writes a separate next row, so the blocks are independent and produce exactly the cells
+ * and decision bits of the sequential engine. Blocks start on decision word boundaries, so no two tasks write the same
+ * word.
+ */
+final class ParallelKnapsackEngine {
+
+    private ParallelKnapsackEngine() {
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage, final ForkJoinPool pool, final int blockSize) {
+        final int size = fixedPointPackage.size();
+        final int rowLength = fixedPointPackage.denseCapacity() + 1;
+
+        long[] previous = new long[rowLength];
+        long[] current = new long[rowLength];
+        final long[] decisions = new long[DenseKnapsackEngine.wordCount((long) size * rowLength)];
+
+        for (int i = 0; i < size; i++) {
+            pool.invoke(new RowUpdate(previous, current, decisions, (long) i * rowLength, (int) fixedPointPackage.weight(i),
+                    fixedPointPackage.cost(i), blockSize, 0, rowLength));
+            final long[] next = previous;
+            previous = current;
+            current = next;
+        }
+
+        return DenseKnapsackEngine.backtrack(fixedPointPackage, previous, decisions);
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RowUpdate extends RecursiveAction {
+
+        private final long[] previous;
+        private final long[] current;
+        private final long[] decisions;
+        private final long rowOffset;
+        private final int weight;
+        private final long cost;
+        private final int blockSize;
+        private final int from;
+        private final int to;
+
+        RowUpdate(final long[] previous, final long[] current, final long[] decisions, final long rowOffset, final int weight,
+                  final long cost, final int blockSize, final int from, final int to) {
+            this.previous = previous;
+            this.current = current;
+            this.decisions = decisions;
+            this.rowOffset = rowOffset;
+            this.weight = weight;
+            this.cost = cost;
+            this.blockSize = blockSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > this.blockSize) {
+                final int middle = (int) (((this.rowOffset + ((this.from + this.to) >>> 1)) & -Long.SIZE) - this.rowOffset);
+                if (middle > this.from && middle < this.to) {
+                    invokeAll(this.split(this.from, middle), this.split(middle, this.to));
+                    return;
+                }
+            }
+
+            final int copyEnd = Math.min(this.to, Math.max(this.from, this.weight));
+            System.arraycopy(this.previous, this.from, this.current, this.from, copyEnd - this.from);
+            for (int w = copyEnd; w < this.to; w++) {
+                final long costWithItem = this.previous[w - this.weight] + this.cost;
+                if (costWithItem > this.previous[w]) {
+                    this.current[w] = costWithItem;
+                    DenseKnapsackEngine.setBit(this.decisions, this.rowOffset + w);
+                } else {
+                    this.current[w] = this.previous[w];
+                }
+            }
+        }
+
+        private RowUpdate split(final int from, final int to) {
+            return new RowUpdate(this.previous, this.current, this.decisions, this.rowOffset, this.weight, this.cost,
+                    this.blockSize, from, to);
+        }
+    }
+}
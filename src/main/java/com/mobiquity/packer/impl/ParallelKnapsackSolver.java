@@ -0,0 +1,79 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link KnapsackSolver} that spreads the rows of a single package over a {@link ForkJoinPool} once they are longer
+ * than one block, and solves smaller packages on the calling thread. Like {@link KnapsackSolver}, tables beyond the
+ * memory budget are reconstructed by {@link RecursiveKnapsackEngine} or solved by {@link ParetoFrontierEngine}.
+ */
+public final class ParallelKnapsackSolver implements PackageSolver {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    public static PackageSolver getInstance() {
+        return new ParallelKnapsackSolver(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE, PackerMetrics.noop(), KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final PackerMetrics metrics) {
+        return new ParallelKnapsackSolver(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE, metrics, KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final PackerMetrics metrics, final long memoryBudget) {
+        return newInstance(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE, metrics, memoryBudget);
+    }
+
+    public static PackageSolver newInstance(final ForkJoinPool pool, final int blockSize) {
+        return newInstance(pool, blockSize, PackerMetrics.noop(), KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final ForkJoinPool pool, final int blockSize, final PackerMetrics metrics, final long memoryBudget) {
+        if (blockSize < Long.SIZE) {
+            throw new IllegalArgumentException("Block size must be at least " + Long.SIZE + ": " + blockSize);
+        }
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudget);
+        }
+        return new ParallelKnapsackSolver(pool, blockSize, metrics, memoryBudget);
+    }
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+    private final PackerMetrics metrics;
+    private final long memoryBudget;
+
+    private ParallelKnapsackSolver(final ForkJoinPool pool, final int blockSize, final PackerMetrics metrics, final long memoryBudget) {
+        this.pool = pool;
+        this.blockSize = blockSize;
+        this.metrics = metrics;
+        this.memoryBudget = memoryBudget;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        final boolean parallel = fixedPointPackage.capacity() >= this.blockSize;
+
+        final KnapsackPlan plan = KnapsackPlan.of(fixedPointPackage, this.memoryBudget, parallel ? 2 : 1);
+        final BitSet selection = switch (plan) {
+            case DENSE -> parallel
+                    ? ParallelKnapsackEngine.select(fixedPointPackage, this.pool, this.blockSize)
+                    : DenseKnapsackEngine.select(fixedPointPackage);
+            case RECURSIVE -> RecursiveKnapsackEngine.select(fixedPointPackage,
+                    KnapsackPlan.recursiveLeafBudgetBits(fixedPointPackage, this.memoryBudget));
+            case PARETO -> ParetoFrontierEngine.select(fixedPointPackage, this.memoryBudget);
+        };
+        if (plan != KnapsackPlan.PARETO) {
+            this.metrics.increment(Counter.DP_CELLS, fixedPointPackage.cells());
+        }
+
+        return fixedPointPackage.toOptimizedPackage(selection);
+    }
+}
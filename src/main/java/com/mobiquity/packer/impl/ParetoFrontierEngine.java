@@ -0,0 +1,165 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.exception.PackerValidationException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Nemhauser–Ullmann dynamic programming: only the states that are not dominated (lighter and at least as valuable)
+ * are kept, as a list sorted by weight with strictly increasing cost. Its cost follows the number of distinct
+ * non-dominated states rather than the capacity. On equal weight and cost the state without the current item is kept,
+ * which gives the same selection as {@link DenseKnapsackEngine}.
+ * <p>
+ * The frontiers and the selection nodes grow by doubling up to the maximum array length, and a package whose arrays would
+ * exceed the memory budget is rejected with a {@link PackerValidationException} instead of exhausting the heap.
+ */
+final class ParetoFrontierEngine {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    private static final long STATE_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final long NODE_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int ROOT = -1;
+
+    private final long memoryBudget;
+
+    private long[] weights = new long[INITIAL_CAPACITY];
+    private long[] costs = new long[INITIAL_CAPACITY];
+    private int[] nodes = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private long[] nextWeights = new long[INITIAL_CAPACITY];
+    private long[] nextCosts = new long[INITIAL_CAPACITY];
+    private int[] nextNodes = new int[INITIAL_CAPACITY];
+    private int nextSize;
+
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int nodeCount;
+
+    private ParetoFrontierEngine(final long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage) {
+        return select(fixedPointPackage, KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage, final long memoryBudget) {
+        return new ParetoFrontierEngine(memoryBudget).run(fixedPointPackage);
+    }
+
+    private BitSet run(final FixedPointPackage fixedPointPackage) {
+        this.weights[0] = 0;
+        this.costs[0] = 0;
+        this.nodes[0] = ROOT;
+        this.size = 1;
+
+        for (int position = 0; position < fixedPointPackage.size(); position++) {
+            this.merge(position, fixedPointPackage.weight(position), fixedPointPackage.cost(position), fixedPointPackage.capacity());
+        }
+
+        final BitSet selection = new BitSet(fixedPointPackage.size());
+        for (int node = this.nodes[this.size - 1]; node != ROOT; node = this.parents[node]) {
+            selection.set(this.positions[node]);
+        }
+        return selection;
+    }
+
+    private void merge(final int position, final long weight, final long cost, final long capacity) {
+        this.nextSize = 0;
+        long lastCost = -1;
+        int kept = 0;
+        int taken = 0;
+
+        while (kept < this.size || (taken < this.size && this.weights[taken] + weight <= capacity)) {
+            final boolean takeItem;
+            if (kept == this.size) {
+                takeItem = true;
+            } else if (taken == this.size || this.weights[taken] + weight > capacity) {
+                takeItem = false;
+            } else {
+                final long takenWeight = this.weights[taken] + weight;
+                takeItem = takenWeight < this.weights[kept]
+                        || (takenWeight == this.weights[kept] && this.costs[taken] + cost > this.costs[kept]);
+            }
+
+            if (takeItem) {
+                final long takenCost = this.costs[taken] + cost;
+                if (takenCost > lastCost) {
+                    this.append(this.weights[taken] + weight, takenCost, this.newNode(this.nodes[taken], position));
+                    lastCost = takenCost;
+                }
+                taken++;
+            } else {
+                if (this.costs[kept] > lastCost) {
+                    this.append(this.weights[kept], this.costs[kept], this.nodes[kept]);
+                    lastCost = this.costs[kept];
+                }
+                kept++;
+            }
+        }
+
+        this.swap();
+    }
+
+    private void append(final long weight, final long cost, final int node) {
+        if (this.nextSize == this.nextWeights.length) {
+            final int length = this.grownLength(this.nextSize, STATE_BYTES);
+            this.nextWeights = Arrays.copyOf(this.nextWeights, length);
+            this.nextCosts = Arrays.copyOf(this.nextCosts, length);
+            this.nextNodes = Arrays.copyOf(this.nextNodes, length);
+        }
+        this.nextWeights[this.nextSize] = weight;
+        this.nextCosts[this.nextSize] = cost;
+        this.nextNodes[this.nextSize] = node;
+        this.nextSize++;
+    }
+
+    private int newNode(final int parent, final int position) {
+        if (this.nodeCount == this.parents.length) {
+            final int length = this.grownLength(this.nodeCount, NODE_BYTES);
+            this.parents = Arrays.copyOf(this.parents, length);
+            this.positions = Arrays.copyOf(this.positions, length);
+        }
+        this.parents[this.nodeCount] = parent;
+        this.positions[this.nodeCount] = position;
+        return this.nodeCount++;
+    }
+
+    /**
+     * Doubled length of a full array of {@code length} elements, checked against the maximum array length and against the
+     * memory budget while the old array is still referenced.
+     */
+    private int grownLength(final int length, final long elementBytes) {
+        if (length == MAX_ARRAY_LENGTH) {
+            throw this.budgetExceeded();
+        }
+        final int grownLength = (int) Math.min(MAX_ARRAY_LENGTH, 2L * length);
+        final long usedBytes = (this.weights.length + (long) this.nextWeights.length) * STATE_BYTES + this.parents.length * NODE_BYTES;
+        if (grownLength * elementBytes > this.memoryBudget - usedBytes) {
+            throw this.budgetExceeded();
+        }
+        return grownLength;
+    }
+
+    private PackerValidationException budgetExceeded() {
+        return new PackerValidationException("Package cannot be solved within the memory budget of " + this.memoryBudget + " bytes");
+    }
+
+    private void swap() {
+        final long[] swappedWeights = this.weights;
+        final long[] swappedCosts = this.costs;
+        final int[] swappedNodes = this.nodes;
+
+        this.weights = this.nextWeights;
+        this.costs = this.nextCosts;
+        this.nodes = this.nextNodes;
+        this.size = this.nextSize;
+
+        this.nextWeights = swappedWeights;
+        this.nextCosts = swappedCosts;
+        this.nextNodes = swappedNodes;
+    }
+}
@@ -0,0 +1,152 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reduces a package before handing it to the delegate, without changing the selected items:
+ * <ul>
+ *     <li>items heavier than the limit or without a positive cost are dropped, as they are never part of the best selection;</li>
+ *     <li>packages with nothing left, or whose remaining items all fit together, are answered directly;</li>
+ *     <li>an item is dropped when its dominating items (no heavier, no cheaper, and strictly better or earlier) cannot all
+ *     be packed together with it, since one of them can always replace it;</li>
+ *     <li>fixed-point weights and the capacity are divided by the greatest common divisor of the weights.</li>
+ * </ul>
+ * The remaining items keep their relative order, so the delegate applies the same tie-breaks. The reductions work on
+ * {@link BigDecimal} values and allocate on every solve, so they only pay off for packages with many removable items.
+ */
+public final class PreprocessingSolver implements PackageSolver {
+
+    static final int DOMINANCE_ITEM_LIMIT = 1024;
+
+    public static PackageSolver newInstance(final PackageSolver delegate) {
+        return new PreprocessingSolver(delegate);
+    }
+
+    private final PackageSolver delegate;
+
+    private PreprocessingSolver(final PackageSolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final BigDecimal weightLimit = BigDecimal.valueOf(inboundPackage.weightLimit());
+
+        List<Item> candidates = new ArrayList<>(inboundPackage.items().size());
+        for (final Item item : inboundPackage.items()) {
+            if (item.weight().compareTo(weightLimit) <= 0 && item.cost().signum() > 0) {
+                candidates.add(item);
+            }
+        }
+
+        if (candidates.size() <= DOMINANCE_ITEM_LIMIT && !fitTogether(candidates, weightLimit)) {
+            candidates = withoutDominatedItems(candidates, weightLimit);
+        }
+        if (fitTogether(candidates, weightLimit)) {
+            return toOptimizedPackage(inboundPackage.weightLimit(), candidates);
+        }
+
+        final int scale = weightScale(candidates);
+        final BigInteger divisor = weightDivisor(candidates, scale, inboundPackage.weightLimit());
+        final int reducedWeightLimit = divisor == null
+                ? inboundPackage.weightLimit()
+                : reducedCapacity(inboundPackage.weightLimit(), scale, divisor).intValueExact();
+
+        final List<Item> positionedItems = new ArrayList<>(candidates.size());
+        for (int position = 0; position < candidates.size(); position++) {
+            final Item item = candidates.get(position);
+            final BigDecimal weight = divisor == null
+                    ? item.weight()
+                    : new BigDecimal(item.weight().movePointRight(scale).toBigIntegerExact().divide(divisor));
+            positionedItems.add(new Item(position, weight, item.cost()));
+        }
+        final OptimizedPackage reduced = this.delegate.solve(new InboundPackage(reducedWeightLimit, positionedItems));
+
+        final List<Item> selectedItems = new ArrayList<>(reduced.items().size());
+        for (final Item item : reduced.items()) {
+            selectedItems.add(candidates.get(item.index()));
+        }
+        return toOptimizedPackage(inboundPackage.weightLimit(), selectedItems);
+    }
+
+    private static boolean fitTogether(final List<Item> items, final BigDecimal weightLimit) {
+        BigDecimal totalWeight = BigDecimal.ZERO;
+        for (final Item item : items) {
+            totalWeight = totalWeight.add(item.weight());
+            if (totalWeight.compareTo(weightLimit) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Item> withoutDominatedItems(final List<Item> items, final BigDecimal weightLimit) {
+        final List<Item> remaining = new ArrayList<>(items.size());
+        for (int j = 0; j < items.size(); j++) {
+            final Item item = items.get(j);
+            BigDecimal weight = item.weight();
+            boolean dominated = false;
+
+            for (int i = 0; i < items.size() && !dominated; i++) {
+                if (i != j && dominates(items.get(i), i, item, j)) {
+                    weight = weight.add(items.get(i).weight());
+                    dominated = weight.compareTo(weightLimit) > 0;
+                }
+            }
+
+            if (!dominated) {
+                remaining.add(item);
+            }
+        }
+        return remaining;
+    }
+
+    private static boolean dominates(final Item item, final int position, final Item other, final int otherPosition) {
+        final int weightComparison = item.weight().compareTo(other.weight());
+        final int costComparison = item.cost().compareTo(other.cost());
+        return weightComparison <= 0 && costComparison >= 0
+                && (weightComparison < 0 || costComparison > 0 || position < otherPosition);
+    }
+
+    /**
+     * Greatest common divisor of the fixed-point weights, or {@code null} when it is one or the divided capacity would
+     * not fit into an {@code int}.
+     */
+    private static BigInteger weightDivisor(final List<Item> items, final int scale, final int weightLimit) {
+        BigInteger divisor = BigInteger.ZERO;
+        for (final Item item : items) {
+            divisor = divisor.gcd(item.weight().movePointRight(scale).toBigIntegerExact());
+        }
+
+        if (divisor.compareTo(BigInteger.ONE) <= 0 || reducedCapacity(weightLimit, scale, divisor).bitLength() >= Integer.SIZE) {
+            return null;
+        }
+        return divisor;
+    }
+
+    private static BigInteger reducedCapacity(final int weightLimit, final int scale, final BigInteger divisor) {
+        return BigInteger.valueOf(weightLimit).multiply(BigInteger.TEN.pow(scale)).divide(divisor);
+    }
+
+    private static int weightScale(final List<Item> items) {
+        int scale = 0;
+        for (final Item item : items) {
+            scale = Math.max(scale, item.weight().stripTrailingZeros().scale());
+        }
+        return scale;
+    }
+
+    private static OptimizedPackage toOptimizedPackage(final int weightLimit, final List<Item> items) {
+        final List<Item> selectedItems = new ArrayList<>(items);
+        selectedItems.sort(null);
+        return new OptimizedPackage(weightLimit, selectedItems);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mobiquity.packer.impl;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * {@link DenseKnapsackEngine} for tables whose decision bits do not fit into memory. After a forward pass over a single
+ * row finds the lightest optimal capacity, the items are split in halves: the row before the second half is recomputed,
+ * the second half is reconstructed first, exactly like the backtracking walks it, and the capacity it leaves is then
+ * reconstructed over the first half. Ranges whose decision bits fit into {@code budgetBits} are solved densely, in place
+ * of the row they start from, which no caller reads again. Only cells up to the capacity being reconstructed are computed,
+ * and besides the row of the forward pass at most one row per recursion level is kept. The row updates themselves are
+ * done by a {@link RowUpdate}, scalar unless a solver supplies a vectorized one.
+ */
+final class RecursiveKnapsackEngine {
+
+    static final RowUpdate SCALAR = new RowUpdate() {
+        @Override
+        public void advance(final long[] dp, final int capacity, final int weight, final long cost) {
+            for (int w = capacity; w >= weight; w--) {
+                dp[w] = Math.max(dp[w], dp[w - weight] + cost);
+            }
+        }
+
+        @Override
+        public void addItem(final long[] dp, final long[] decisions, final int capacity, final int position, final int weight, final long cost) {
+            DenseKnapsackEngine.addItem(dp, decisions, capacity, position, weight, cost);
+        }
+    };
+
+    private RecursiveKnapsackEngine() {
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage, final long budgetBits) {
+        return select(fixedPointPackage, budgetBits, SCALAR);
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage, final long budgetBits, final RowUpdate rowUpdate) {
+        final int capacity = fixedPointPackage.denseCapacity();
+        final long[] dp = new long[capacity + 1];
+        advance(fixedPointPackage, rowUpdate, dp, 0, fixedPointPackage.size(), capacity);
+
+        final int lightestCapacity = DenseKnapsackEngine.lightestOptimalCapacity(dp, capacity);
+        final BitSet selection = new BitSet(fixedPointPackage.size());
+        Arrays.fill(dp, 0, lightestCapacity + 1, 0L);
+        reconstruct(fixedPointPackage, rowUpdate, dp, 0, fixedPointPackage.size(), lightestCapacity, Math.max(1, budgetBits), selection);
+        return selection;
+    }
+
+    /**
+     * Selects from the items in {@code [from, to)} starting at capacity {@code w}, where {@code row} holds the DP row before
+     * {@code from} up to at least {@code w}, and returns the capacity left for the items before {@code from}. The cells of
+     * {@code row} may be overwritten.
+     */
+    private static int reconstruct(final FixedPointPackage fixedPointPackage, final RowUpdate rowUpdate, final long[] row,
+                                   final int from, final int to, final int w, final long budgetBits, final BitSet selection) {
+        if (w == 0 || from == to) {
+            return w;
+        }
+        if (to - from == 1 || (long) (to - from) * (w + 1) <= budgetBits) {
+            return reconstructDensely(fixedPointPackage, rowUpdate, row, from, to, w, selection);
+        }
+
+        final int middle = (from + to) >>> 1;
+        final long[] middleRow = Arrays.copyOf(row, w + 1);
+        advance(fixedPointPackage, rowUpdate, middleRow, from, middle, w);
+
+        final int remaining = reconstruct(fixedPointPackage, rowUpdate, middleRow, middle, to, w, budgetBits, selection);
+        return reconstruct(fixedPointPackage, rowUpdate, row, from, middle, remaining, budgetBits, selection);
+    }
+
+    private static int reconstructDensely(final FixedPointPackage fixedPointPackage, final RowUpdate rowUpdate, final long[] dp,
+                                          final int from, final int to, final int capacity, final BitSet selection) {
+        final long rowLength = capacity + 1L;
+        final long[] decisions = new long[DenseKnapsackEngine.wordCount((to - from) * rowLength)];
+
+        for (int i = from; i < to; i++) {
+            rowUpdate.addItem(dp, decisions, capacity, i - from, (int) fixedPointPackage.weight(i), fixedPointPackage.cost(i));
+        }
+
+        int w = capacity;
+        for (int i = to - 1; i >= from && w > 0; i--) {
+            if (DenseKnapsackEngine.isBitSet(decisions, (i - from) * rowLength + w)) {
+                selection.set(i);
+                w -= (int) fixedPointPackage.weight(i);
+            }
+        }
+        return w;
+    }
+
+    private static void advance(final FixedPointPackage fixedPointPackage, final RowUpdate rowUpdate, final long[] dp,
+                                final int from, final int to, final int capacity) {
+        for (int i = from; i < to; i++) {
+            rowUpdate.advance(dp, capacity, (int) fixedPointPackage.weight(i), fixedPointPackage.cost(i));
+        }
+    }
+
+    /**
+     * Applies one item to the cells {@code 0..capacity} of a DP row, from the top down.
+     */
+    interface RowUpdate {
+
+        /**
+         * Sets {@code dp[w] = max(dp[w], dp[w - weight] + cost)} for every {@code w >= weight}.
+         */
+        void advance(long[] dp, int capacity, int weight, long cost);
+
+        /**
+         * Same as {@link #advance}, also setting the bit {@code position * (capacity + 1) + w} of {@code decisions} for every
+         * cell the item strictly improves.
+         */
+        void addItem(long[] dp, long[] decisions, int capacity, int position, int weight, long cost);
+    }
+}
@@ -0,0 +1,292 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.exception.APIException;
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Packs a file line by line without giving up on bad lines:
+ * <ul>
+ *     <li>a line failing to parse or solve leaves an empty output line, so output lines stay aligned with input lines, and
+ *     its line number, byte offset and message are appended to the error file;</li>
+ *     <li>every {@code checkpointInterval} lines both outputs are forced to disk, then a {@link Checkpoint} replaces the
+ *     previous one;</li>
+ *     <li>a run finding a checkpoint truncates both outputs back to it and continues from its byte offset.</li>
+ * </ul>
+ * The checkpoint is deleted once the whole file has been packed.
+ */
+public final class ResumablePacker {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+    public static final String ERRORS_SUFFIX = ".errors";
+    public static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private static final String LINE_SEPARATOR = "\n";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static ResumablePacker getInstance() {
+        return newInstance(PackerMetrics.getDefaultInstance(), DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public static ResumablePacker newInstance(final PackerMetrics metrics, final int checkpointInterval) {
+        return newInstance(InputParser.getDefaultInstance(metrics), PackageSolver.getDefaultInstance(metrics), metrics, checkpointInterval);
+    }
+
+    public static ResumablePacker newInstance(final InputParser inputParser, final PackageSolver packageSolver,
+                                              final PackerMetrics metrics, final int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        return new ResumablePacker(inputParser, packageSolver, metrics, checkpointInterval);
+    }
+
+    public static void main(final String[] args) throws APIException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: ResumablePacker <input> <output> [checkpoint interval]");
+            System.exit(2);
+        }
+        final int checkpointInterval = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CHECKPOINT_INTERVAL;
+        final Result result = newInstance(PackerMetrics.getDefaultInstance(), checkpointInterval).pack(Path.of(args[0]), Path.of(args[1]));
+        System.out.println(result.lines() + " lines packed, " + result.failedLines() + " failed, resumed after line " + result.resumedAfterLine());
+    }
+
+    private final InputParser inputParser;
+    private final PackageSolver packageSolver;
+    private final PackerMetrics metrics;
+    private final int checkpointInterval;
+
+    private ResumablePacker(final InputParser inputParser, final PackageSolver packageSolver, final PackerMetrics metrics,
+                            final int checkpointInterval) {
+        this.inputParser = inputParser;
+        this.packageSolver = packageSolver;
+        this.metrics = metrics;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Writes the errors and the checkpoint next to the output, with the {@value #ERRORS_SUFFIX} and
+     * {@value #CHECKPOINT_SUFFIX} suffixes.
+     */
+    public Result pack(final Path input, final Path output) throws APIException {
+        return this.pack(input, output, Path.of(output + ERRORS_SUFFIX), Path.of(output + CHECKPOINT_SUFFIX));
+    }
+
+    public Result pack(final Path input, final Path output, final Path errors, final Path checkpoint) throws APIException {
+        final long start = System.nanoTime();
+        try {
+            final Checkpoint resumeFrom = Checkpoint.read(checkpoint);
+            final Result result = this.pack(input, output, errors, checkpoint, resumeFrom);
+            Files.deleteIfExists(checkpoint);
+            return result;
+        } catch (final IOException e) {
+            throw new APIException("Exception has been occurred while processing the file" + input, e);
+        } finally {
+            this.metrics.recordLatency(Stage.RUN, System.nanoTime() - start);
+            this.metrics.runCompleted();
+        }
+    }
+
+    private Result pack(final Path input, final Path output, final Path errors, final Path checkpoint, final Checkpoint resumeFrom)
+            throws IOException {
+        try (final MappedLineReader reader = MappedLineReader.open(input, resumeFrom.byteOffset(), MappedLineReader.DEFAULT_REGION_SIZE);
+             final FileChannel outputChannel = openAt(output, resumeFrom.outputPosition());
+             final ChannelSink errorSink = new ChannelSink(openAt(errors, resumeFrom.errorPosition()))) {
+
+            final OutputEncoder encoder = OutputEncoder.newInstance(outputChannel, BUFFER_SIZE);
+            long lineNumber = resumeFrom.lineNumber();
+            long failedLines = 0;
+            final boolean metered = this.metrics.isEnabled();
+            long lineStart = metered ? System.nanoTime() : 0;
+            while (reader.nextLine()) {
+                lineNumber++;
+                if (lineNumber > 1) {
+                    encoder.newLine();
+                }
+
+                final String line = StandardCharsets.UTF_8.decode(reader.buffer().slice(reader.lineStart(), reader.lineEnd() - reader.lineStart())).toString();
+                try {
+                    this.encodeLine(encoder, line);
+                } catch (final RuntimeException e) {
+                    errorSink.write(lineNumber + FIELD_SEPARATOR + reader.lineOffset() + FIELD_SEPARATOR + describe(e) + LINE_SEPARATOR);
+                    failedLines++;
+                }
+                if (metered) {
+                    final long lineEnd = System.nanoTime();
+                    this.metrics.recordLatency(Stage.LINE, lineEnd - lineStart);
+                    lineStart = lineEnd;
+                }
+
+                if ((lineNumber - resumeFrom.lineNumber()) % this.checkpointInterval == 0) {
+                    new Checkpoint(reader.nextLineOffset(), lineNumber, force(encoder, outputChannel), errorSink.force()).write(checkpoint);
+                    if (metered) {
+                        lineStart = System.nanoTime();
+                    }
+                }
+            }
+            force(encoder, outputChannel);
+            errorSink.force();
+
+            return new Result(lineNumber - resumeFrom.lineNumber(), failedLines, resumeFrom.lineNumber());
+        }
+    }
+
+    /**
+     * Solves the line and encodes its package, or throws before anything is encoded.
+     */
+    private void encodeLine(final OutputEncoder encoder, final String line) throws IOException {
+        final OptimizedPackage optimizedPackage = this.packageSolver.solve(this.inputParser.parse(line));
+
+        final long start = System.nanoTime();
+        encoder.encode(optimizedPackage);
+        this.metrics.recordLatency(Stage.FORMAT, System.nanoTime() - start);
+    }
+
+    private static long force(final OutputEncoder encoder, final FileChannel channel) throws IOException {
+        encoder.flush();
+        channel.force(false);
+        return channel.position();
+    }
+
+    /**
+     * Opens the file for writing, truncated to the given position.
+     */
+    private static FileChannel openAt(final Path path, final long position) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < position) {
+                throw new IOException(path + " is shorter than its checkpoint position " + position);
+            }
+            channel.truncate(position);
+            channel.position(position);
+            return channel;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static String describe(final RuntimeException e) {
+        return (e.getClass().getSimpleName() + ": " + e.getMessage()).replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Lines read from the input and failed lines of one run, which started after line {@code resumedAfterLine}.
+     */
+    public record Result(long lines, long failedLines, long resumedAfterLine) {
+    }
+
+    /**
+     * Position of the next line to pack: its byte offset in the input, the number of lines packed before it, and the
+     * lengths of the output and error files at that point.
+     */
+    public record Checkpoint(long byteOffset, long lineNumber, long outputPosition, long errorPosition) {
+
+        public static final Checkpoint START = new Checkpoint(0, 0, 0, 0);
+
+        public static Checkpoint read(final Path path) throws IOException {
+            if (!Files.exists(path)) {
+                return START;
+            }
+            final Properties properties = new Properties();
+            try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            return new Checkpoint(
+                    Long.parseLong(properties.getProperty("byteOffset")),
+                    Long.parseLong(properties.getProperty("lineNumber")),
+                    Long.parseLong(properties.getProperty("outputPosition")),
+                    Long.parseLong(properties.getProperty("errorPosition")));
+        }
+
+        /**
+         * Replaces the checkpoint at {@code path} through a temporary file, so a crash never leaves a partial one behind.
+         */
+        public void write(final Path path) throws IOException {
+            final Properties properties = new Properties();
+            properties.setProperty("byteOffset", String.valueOf(this.byteOffset));
+            properties.setProperty("lineNumber", String.valueOf(this.lineNumber));
+            properties.setProperty("outputPosition", String.valueOf(this.outputPosition));
+            properties.setProperty("errorPosition", String.valueOf(this.errorPosition));
+
+            final Path temporary = Path.of(path + ".tmp");
+            try (final Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Buffered text writer over a file channel that knows how many bytes the file holds.
+     */
+    private static final class ChannelSink implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        ChannelSink(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void write(final String text) throws IOException {
+            final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (this.buffer.remaining() < bytes.length) {
+                this.drain();
+            }
+            if (this.buffer.remaining() < bytes.length) {
+                writeFully(this.channel, ByteBuffer.wrap(bytes));
+            } else {
+                this.buffer.put(bytes);
+            }
+        }
+
+        long force() throws IOException {
+            this.drain();
+            this.channel.force(false);
+            return this.channel.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.drain();
+            } finally {
+                this.channel.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            this.buffer.flip();
+            writeFully(this.channel, this.buffer);
+            this.buffer.clear();
+        }
+
+        private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.Item;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link KnapsackSolver} variant that converts the items to fixed-point values and runs the dense engine inside the
+ * per thread {@link SolverScratch} buffers, so that in steady state only the result is allocated. Tables beyond the
+ * memory budget are handed to {@link KnapsackSolver}, which reconstructs them recursively or over the Pareto frontier
+ * without growing the scratch buffers.
+ */
+public final class ScratchKnapsackSolver implements PackageSolver {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    public static PackageSolver getInstance() {
+        return new ScratchKnapsackSolver(PackerMetrics.noop(), KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final PackerMetrics metrics) {
+        return new ScratchKnapsackSolver(metrics, KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final PackerMetrics metrics, final long memoryBudget) {
+        return new ScratchKnapsackSolver(metrics, memoryBudget);
+    }
+
+    private final PackerMetrics metrics;
+    private final long memoryBudget;
+    private final PackageSolver fallbackSolver;
+
+    private ScratchKnapsackSolver(final PackerMetrics metrics, final long memoryBudget) {
+        this.metrics = metrics;
+        this.memoryBudget = memoryBudget;
+        this.fallbackSolver = KnapsackSolver.newInstance(metrics, memoryBudget);
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final List<Item> items = inboundPackage.items();
+        final SolverScratch scratch = SolverScratch.current();
+        scratch.ensureItemCapacity(items.size());
+
+        int size = 0;
+        int weightScale = 0;
+        int costScale = 0;
+        for (int i = 0; i < items.size(); i++) {
+            final Item item = items.get(i);
+            scratch.unscaledWeights[size] = unscaledValue(item.weight());
+            final int scale = trim(scratch.unscaledWeights, size, item.weight().scale());
+            if (scratch.unscaledWeights[size] > saturatedScaleUp(inboundPackage.weightLimit(), scale)) {
+                continue;
+            }
+
+            scratch.unscaledCosts[size] = unscaledValue(item.cost());
+            final int itemCostScale = trim(scratch.unscaledCosts, size, item.cost().scale());
+
+            scratch.positions[size] = i;
+            scratch.weightScales[size] = scale;
+            scratch.costScales[size] = itemCostScale;
+            weightScale = Math.max(weightScale, scale);
+            costScale = Math.max(costScale, itemCostScale);
+            size++;
+        }
+
+        final long scaledCapacity = saturatedScaleUp(inboundPackage.weightLimit(), weightScale);
+        if (scaledCapacity > FixedPointPackage.MAX_DENSE_CAPACITY || KnapsackPlan.denseBytes(size, scaledCapacity, 1) > this.memoryBudget) {
+            return this.fallbackSolver.solve(inboundPackage);
+        }
+
+        for (int i = 0; i < size; i++) {
+            scratch.weights[i] = Math.toIntExact(Math.multiplyExact(scratch.unscaledWeights[i], pow10(weightScale - scratch.weightScales[i])));
+            scratch.costs[i] = Math.multiplyExact(scratch.unscaledCosts[i], pow10(costScale - scratch.costScales[i]));
+        }
+        final int capacity = Math.toIntExact(Math.multiplyExact((long) inboundPackage.weightLimit(), pow10(weightScale)));
+        final long cells = (long) size * (capacity + 1);
+
+        final int selected = DenseKnapsackEngine.select(size, capacity, scratch.weights, scratch.costs,
+                scratch.dp(capacity + 1), scratch.decisions(DenseKnapsackEngine.wordCount(cells)), scratch.selection);
+        this.metrics.increment(Counter.DP_CELLS, cells);
+
+        final List<Item> selectedItems = new ArrayList<>(selected);
+        for (int k = selected - 1; k >= 0; k--) {
+            selectedItems.add(items.get(scratch.positions[scratch.selection[k]]));
+        }
+        selectedItems.sort(null);
+
+        return new OptimizedPackage(inboundPackage.weightLimit(), selectedItems);
+    }
+
+    private static long unscaledValue(final BigDecimal value) {
+        return value.scale() <= 0 ? value.longValueExact() : value.unscaledValue().longValueExact();
+    }
+
+    private static int trim(final long[] unscaledValues, final int position, final int scale) {
+        int trimmedScale = Math.max(0, scale);
+        while (trimmedScale > 0 && unscaledValues[position] % 10 == 0) {
+            unscaledValues[position] /= 10;
+            trimmedScale--;
+        }
+        return trimmedScale;
+    }
+
+    private static long saturatedScaleUp(final long value, final int scale) {
+        if (scale >= POWERS_OF_TEN.length || value > Long.MAX_VALUE / POWERS_OF_TEN[scale]) {
+            return Long.MAX_VALUE;
+        }
+        return value * POWERS_OF_TEN[scale];
+    }
+
+    private static long pow10(final int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Scale out of range: " + exponent);
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+}
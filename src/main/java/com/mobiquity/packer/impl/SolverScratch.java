@@ -0,0 +1,71 @@
+package com.mobiquity.packer.impl;
+
+import java.util.Arrays;
+
+/**
+ * Per thread buffers reused by {@link ScratchKnapsackSolver} across packages. Arrays only grow, and tables larger than
+ * {@link #MAX_RETAINED_LENGTH} are handed out once instead of being kept alive by the thread.
+ */
+final class SolverScratch {
+
+    static final int MAX_RETAINED_LENGTH = 1 << 20;
+
+    private static final ThreadLocal<SolverScratch> CURRENT = ThreadLocal.withInitial(SolverScratch::new);
+    private static final int INITIAL_ITEM_CAPACITY = 32;
+
+    int[] positions = new int[INITIAL_ITEM_CAPACITY];
+    long[] unscaledWeights = new long[INITIAL_ITEM_CAPACITY];
+    int[] weightScales = new int[INITIAL_ITEM_CAPACITY];
+    long[] unscaledCosts = new long[INITIAL_ITEM_CAPACITY];
+    int[] costScales = new int[INITIAL_ITEM_CAPACITY];
+    int[] weights = new int[INITIAL_ITEM_CAPACITY];
+    long[] costs = new long[INITIAL_ITEM_CAPACITY];
+    int[] selection = new int[INITIAL_ITEM_CAPACITY];
+
+    private long[] dp = new long[0];
+    private long[] decisions = new long[0];
+
+    private SolverScratch() {
+    }
+
+    static SolverScratch current() {
+        return CURRENT.get();
+    }
+
+    void ensureItemCapacity(final int itemCount) {
+        if (itemCount <= this.positions.length) {
+            return;
+        }
+        final int capacity = Math.max(itemCount, this.positions.length * 2);
+        this.positions = new int[capacity];
+        this.unscaledWeights = new long[capacity];
+        this.weightScales = new int[capacity];
+        this.unscaledCosts = new long[capacity];
+        this.costScales = new int[capacity];
+        this.weights = new int[capacity];
+        this.costs = new long[capacity];
+        this.selection = new int[capacity];
+    }
+
+    long[] dp(final int length) {
+        if (length > MAX_RETAINED_LENGTH) {
+            return new long[length];
+        }
+        return this.dp = zeroed(this.dp, length);
+    }
+
+    long[] decisions(final int length) {
+        if (length > MAX_RETAINED_LENGTH) {
+            return new long[length];
+        }
+        return this.decisions = zeroed(this.decisions, length);
+    }
+
+    private static long[] zeroed(final long[] retained, final int length) {
+        if (length > retained.length) {
+            return new long[Math.min(MAX_RETAINED_LENGTH, Math.max(length, retained.length * 2))];
+        }
+        Arrays.fill(retained, 0, length, 0L);
+        return retained;
+    }
+}
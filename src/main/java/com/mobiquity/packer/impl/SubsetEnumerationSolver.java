@@ -0,0 +1,239 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Exact solver that enumerates item subsets instead of capacities, so its cost only depends on the item count.
+ * Up to {@code grayCodeItemLimit} items every subset is visited in Gray-code order, beyond that the items are split into
+ * two halves that are combined with a sorted list and binary search (meet in the middle), which packs the weight and the
+ * mask of a subset into one long and so needs a capacity below {@code 2^43}; other packages go to {@link KnapsackSolver}.
+ * Subsets are ranked like {@link KnapsackSolver} does: highest cost, then lowest weight, then the lowest position mask.
+ */
+public final class SubsetEnumerationSolver implements PackageSolver {
+
+    static final int DEFAULT_GRAY_CODE_ITEM_LIMIT = 20;
+    static final int MEET_IN_THE_MIDDLE_ITEM_LIMIT = 40;
+    private static final int HALF_MASK_BITS = MEET_IN_THE_MIDDLE_ITEM_LIMIT / 2;
+    private static final long HALF_MASK = (1L << HALF_MASK_BITS) - 1;
+    private static final long MAX_MEET_IN_THE_MIDDLE_CAPACITY = Long.MAX_VALUE >> HALF_MASK_BITS;
+
+    public static PackageSolver getInstance() {
+        return new SubsetEnumerationSolver(DEFAULT_GRAY_CODE_ITEM_LIMIT);
+    }
+
+    public static PackageSolver newInstance(final int grayCodeItemLimit) {
+        if (grayCodeItemLimit < 0 || grayCodeItemLimit > MEET_IN_THE_MIDDLE_ITEM_LIMIT) {
+            throw new IllegalArgumentException("Gray code item limit must be between 0 and " + MEET_IN_THE_MIDDLE_ITEM_LIMIT);
+        }
+        return new SubsetEnumerationSolver(grayCodeItemLimit);
+    }
+
+    private final int grayCodeItemLimit;
+    private final PackageSolver fallbackSolver;
+
+    private SubsetEnumerationSolver(final int grayCodeItemLimit) {
+        this.grayCodeItemLimit = grayCodeItemLimit;
+        this.fallbackSolver = KnapsackSolver.getInstance();
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+        if (!supports(fixedPointPackage, this.grayCodeItemLimit)) {
+            return this.fallbackSolver.solve(inboundPackage);
+        }
+
+        return fixedPointPackage.toOptimizedPackage(select(fixedPointPackage, this.grayCodeItemLimit));
+    }
+
+    static boolean supports(final FixedPointPackage fixedPointPackage, final int grayCodeItemLimit) {
+        final int size = fixedPointPackage.size();
+        return size <= grayCodeItemLimit
+                || size <= MEET_IN_THE_MIDDLE_ITEM_LIMIT && fixedPointPackage.capacity() <= MAX_MEET_IN_THE_MIDDLE_CAPACITY;
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage, final int grayCodeItemLimit) {
+        final long mask = fixedPointPackage.size() <= grayCodeItemLimit
+                ? enumerate(fixedPointPackage)
+                : meetInTheMiddle(fixedPointPackage);
+
+        return BitSet.valueOf(new long[]{mask});
+    }
+
+    private static long enumerate(final FixedPointPackage fixedPointPackage) {
+        final int size = fixedPointPackage.size();
+        final long capacity = fixedPointPackage.capacity();
+        final long subsetCount = 1L << size;
+
+        long mask = 0;
+        long weight = 0;
+        long cost = 0;
+        long bestMask = 0;
+        long bestWeight = 0;
+        long bestCost = 0;
+
+        for (long step = 1; step < subsetCount; step++) {
+            final int position = Long.numberOfTrailingZeros(step);
+            final long bit = 1L << position;
+            mask ^= bit;
+            if ((mask & bit) != 0) {
+                weight += fixedPointPackage.weight(position);
+                cost += fixedPointPackage.cost(position);
+            } else {
+                weight -= fixedPointPackage.weight(position);
+                cost -= fixedPointPackage.cost(position);
+            }
+
+            if (weight <= capacity && isBetter(cost, weight, mask, bestCost, bestWeight, bestMask)) {
+                bestMask = mask;
+                bestWeight = weight;
+                bestCost = cost;
+            }
+        }
+
+        return bestMask;
+    }
+
+    private static long meetInTheMiddle(final FixedPointPackage fixedPointPackage) {
+        final int size = fixedPointPackage.size();
+        final int lowerSize = size / 2;
+        final int upperSize = size - lowerSize;
+        final long capacity = fixedPointPackage.capacity();
+
+        final UpperHalf upperHalf = UpperHalf.of(fixedPointPackage, lowerSize, upperSize);
+
+        final long subsetCount = 1L << lowerSize;
+        long mask = 0;
+        long weight = 0;
+        long cost = 0;
+        long bestMask = 0;
+        long bestWeight = 0;
+        long bestCost = 0;
+
+        for (long step = 0; step < subsetCount; step++) {
+            if (step > 0) {
+                final int position = Long.numberOfTrailingZeros(step);
+                final long bit = 1L << position;
+                mask ^= bit;
+                if ((mask & bit) != 0) {
+                    weight += fixedPointPackage.weight(position);
+                    cost += fixedPointPackage.cost(position);
+                } else {
+                    weight -= fixedPointPackage.weight(position);
+                    cost -= fixedPointPackage.cost(position);
+                }
+            }
+            if (weight > capacity) {
+                continue;
+            }
+
+            final int partner = upperHalf.bestWithin(capacity - weight);
+            final long totalWeight = weight + upperHalf.bestWeights[partner];
+            final long totalCost = cost + upperHalf.bestCosts[partner];
+            final long totalMask = mask | (upperHalf.bestMasks[partner] << lowerSize);
+
+            if (isBetter(totalCost, totalWeight, totalMask, bestCost, bestWeight, bestMask)) {
+                bestMask = totalMask;
+                bestWeight = totalWeight;
+                bestCost = totalCost;
+            }
+        }
+
+        return bestMask;
+    }
+
+    private static boolean isBetter(final long cost, final long weight, final long mask,
+                                    final long bestCost, final long bestWeight, final long bestMask) {
+        if (cost != bestCost) {
+            return cost > bestCost;
+        }
+        if (weight != bestWeight) {
+            return weight < bestWeight;
+        }
+        return mask < bestMask;
+    }
+
+    /**
+     * Subsets of the upper half sorted by weight, where entry {@code j} holds the best subset weighing at most
+     * {@code weights[j]}.
+     */
+    private static final class UpperHalf {
+
+        private final long[] weights;
+        private final long[] bestWeights;
+        private final long[] bestCosts;
+        private final long[] bestMasks;
+
+        private UpperHalf(final long[] weights, final long[] bestWeights, final long[] bestCosts, final long[] bestMasks) {
+            this.weights = weights;
+            this.bestWeights = bestWeights;
+            this.bestCosts = bestCosts;
+            this.bestMasks = bestMasks;
+        }
+
+        static UpperHalf of(final FixedPointPackage fixedPointPackage, final int offset, final int size) {
+            final long capacity = fixedPointPackage.capacity();
+            final int subsetCount = 1 << size;
+            long[] keys = new long[subsetCount];
+            int feasibleCount = 0;
+
+            for (int mask = 0; mask < subsetCount; mask++) {
+                long weight = 0;
+                for (int bits = mask; bits != 0; bits &= bits - 1) {
+                    weight += fixedPointPackage.weight(offset + Integer.numberOfTrailingZeros(bits));
+                }
+                if (weight <= capacity) {
+                    keys[feasibleCount++] = (weight << HALF_MASK_BITS) | mask;
+                }
+            }
+            keys = Arrays.copyOf(keys, feasibleCount);
+            Arrays.sort(keys);
+
+            final long[] weights = new long[feasibleCount];
+            final long[] bestWeights = new long[feasibleCount];
+            final long[] bestCosts = new long[feasibleCount];
+            final long[] bestMasks = new long[feasibleCount];
+
+            for (int j = 0; j < feasibleCount; j++) {
+                final long mask = keys[j] & HALF_MASK;
+                final long weight = keys[j] >>> HALF_MASK_BITS;
+                long cost = 0;
+                for (long bits = mask; bits != 0; bits &= bits - 1) {
+                    cost += fixedPointPackage.cost(offset + Long.numberOfTrailingZeros(bits));
+                }
+
+                weights[j] = weight;
+                if (j == 0 || isBetter(cost, weight, mask, bestCosts[j - 1], bestWeights[j - 1], bestMasks[j - 1])) {
+                    bestWeights[j] = weight;
+                    bestCosts[j] = cost;
+                    bestMasks[j] = mask;
+                } else {
+                    bestWeights[j] = bestWeights[j - 1];
+                    bestCosts[j] = bestCosts[j - 1];
+                    bestMasks[j] = bestMasks[j - 1];
+                }
+            }
+
+            return new UpperHalf(weights, bestWeights, bestCosts, bestMasks);
+        }
+
+        int bestWithin(final long capacity) {
+            int low = 0;
+            int high = this.weights.length - 1;
+            while (low < high) {
+                final int middle = (low + high + 1) >>> 1;
+                if (this.weights[middle] <= capacity) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mobiquity.packer.impl;
 
 import com.mobiquity.exception.PackerValidationException;
 import com.mobiquity.packer.InputValidator;
+import com.mobiquity.packer.PackerLimits;
 
 import java.math.BigDecimal;
 import java.util.regex.Matcher;
@@ -9,18 +10,18 @@ import java.util.regex.Pattern;
 
 public final class TextInputValidator implements InputValidator {
 
-    private static final int MAX_ITEMS = 15;
-    private static final int MAX_PACKAGE_WEIGHT = 100;
-    private static final BigDecimal MAX_ITEM_WEIGHT = new BigDecimal(100);
-    private static final BigDecimal MAX_ITEM_COST = new BigDecimal(100);
     private static final Pattern ITEM_PATTERN = Pattern.compile("\\((\\d+),(\\d+(\\.\\d+)?),€(\\d+)\\)");
 
     private static Pattern prepareLinePattern(final int maxItems) {
-        return Pattern.compile("^(\\d+)\\s*:\\s*((\\(\\d+,\\d+(\\.\\d+)?,€\\d+\\)\\s*){1," + maxItems + "})$");
+        return Pattern.compile("^(\\d+)\\s*:\\s*((?:\\(\\d+,\\d+(?:\\.\\d+)?,€\\d+\\)\\s*+){1," + maxItems + "}+)$");
     }
 
     public static InputValidator getDefaultInstance() {
-        return new TextInputValidator(MAX_ITEMS, MAX_PACKAGE_WEIGHT, MAX_ITEM_WEIGHT, MAX_ITEM_COST);
+        return newInstance(PackerLimits.challenge());
+    }
+
+    public static InputValidator newInstance(final PackerLimits limits) {
+        return new TextInputValidator(limits.maxItems(), limits.maxPackageWeight(), limits.maxItemWeight(), limits.maxItemCost());
     }
 
     private final int maxItems;
@@ -72,6 +73,11 @@ public final class TextInputValidator implements InputValidator {
         return this.itemPattern.matcher(items);
     }
 
+    @Override
+    public int maxItems() {
+        return this.maxItems;
+    }
+
     @Override
     public void validatePackageWeightLimit(final int weight) {
         if (weight <= 0 || weight > this.maxPackageWeight) {
@@ -0,0 +1,99 @@
+package com.mobiquity.packer.impl;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.BitSet;
+
+/**
+ * {@link DenseKnapsackEngine} with the row update {@code dp[w] = max(dp[w], dp[w - weight] + cost)} done a vector of
+ * cells at a time, from the top of the row down. Both operands are loaded before the result is stored, so the shifted
+ * load always sees the previous row, and the comparison mask becomes the decision bits of the vector.
+ * {@link #ROW_UPDATE} brings the same row updates to {@link RecursiveKnapsackEngine}. Only loaded when the
+ * {@code jdk.incubator.vector} module is present.
+ */
+final class VectorKnapsackEngine {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    static final RecursiveKnapsackEngine.RowUpdate ROW_UPDATE = new RecursiveKnapsackEngine.RowUpdate() {
+        @Override
+        public void advance(final long[] dp, final int capacity, final int weight, final long cost) {
+            VectorKnapsackEngine.advance(dp, capacity, weight, cost);
+        }
+
+        @Override
+        public void addItem(final long[] dp, final long[] decisions, final int capacity, final int position, final int weight, final long cost) {
+            VectorKnapsackEngine.addItem(dp, decisions, capacity, position * (capacity + 1L), weight, cost);
+        }
+    };
+
+    private VectorKnapsackEngine() {
+    }
+
+    static BitSet select(final FixedPointPackage fixedPointPackage) {
+        final int size = fixedPointPackage.size();
+        final int capacity = fixedPointPackage.denseCapacity();
+        final long rowLength = capacity + 1L;
+
+        final long[] dp = new long[capacity + 1];
+        final long[] decisions = new long[DenseKnapsackEngine.wordCount(size * rowLength)];
+        for (int i = 0; i < size; i++) {
+            addItem(dp, decisions, capacity, i * rowLength, (int) fixedPointPackage.weight(i), fixedPointPackage.cost(i));
+        }
+
+        return DenseKnapsackEngine.backtrack(fixedPointPackage, dp, decisions);
+    }
+
+    private static void addItem(final long[] dp, final long[] decisions, final int capacity, final long rowOffset,
+                                final int weight, final long cost) {
+        final int lanes = SPECIES.length();
+        final LongVector costs = LongVector.broadcast(SPECIES, cost);
+
+        int from = capacity + 1 - lanes;
+        for (; from >= weight; from -= lanes) {
+            final LongVector current = LongVector.fromArray(SPECIES, dp, from);
+            final LongVector withItem = LongVector.fromArray(SPECIES, dp, from - weight).add(costs);
+            final VectorMask<Long> improved = withItem.compare(VectorOperators.GT, current);
+            if (improved.anyTrue()) {
+                current.blend(withItem, improved).intoArray(dp, from);
+                setBits(decisions, rowOffset + from, improved.toLong());
+            }
+        }
+
+        for (int w = from + lanes - 1; w >= weight; w--) {
+            final long costWithItem = dp[w - weight] + cost;
+            if (costWithItem > dp[w]) {
+                dp[w] = costWithItem;
+                DenseKnapsackEngine.setBit(decisions, rowOffset + w);
+            }
+        }
+    }
+
+    private static void advance(final long[] dp, final int capacity, final int weight, final long cost) {
+        final int lanes = SPECIES.length();
+        final LongVector costs = LongVector.broadcast(SPECIES, cost);
+
+        int from = capacity + 1 - lanes;
+        for (; from >= weight; from -= lanes) {
+            final LongVector current = LongVector.fromArray(SPECIES, dp, from);
+            final LongVector withItem = LongVector.fromArray(SPECIES, dp, from - weight).add(costs);
+            current.max(withItem).intoArray(dp, from);
+        }
+
+        for (int w = from + lanes - 1; w >= weight; w--) {
+            dp[w] = Math.max(dp[w], dp[w - weight] + cost);
+        }
+    }
+
+    private static void setBits(final long[] words, final long firstBit, final long bits) {
+        final int word = (int) (firstBit >>> 6);
+        final int shift = (int) (firstBit & 63);
+        words[word] |= bits << shift;
+        if (shift != 0 && (bits >>> (64 - shift)) != 0) {
+            words[word + 1] |= bits >>> (64 - shift);
+        }
+    }
+}
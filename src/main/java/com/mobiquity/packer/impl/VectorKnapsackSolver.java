@@ -0,0 +1,64 @@
+package com.mobiquity.packer.impl;
+
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.model.InboundPackage;
+import com.mobiquity.packer.model.OptimizedPackage;
+
+import java.util.BitSet;
+
+/**
+ * {@link KnapsackSolver} running the SIMD {@link VectorKnapsackEngine} when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and the scalar {@link DenseKnapsackEngine} otherwise. Like
+ * {@link KnapsackSolver}, tables beyond the memory budget are reconstructed by {@link RecursiveKnapsackEngine}, with the
+ * same vectorized row updates, or solved by {@link ParetoFrontierEngine}.
+ */
+public final class VectorKnapsackSolver implements PackageSolver {
+
+    public static final boolean VECTOR_API_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    public static PackageSolver getInstance() {
+        return new VectorKnapsackSolver(PackerMetrics.noop(), KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final PackerMetrics metrics) {
+        return new VectorKnapsackSolver(metrics, KnapsackSolver.DEFAULT_MEMORY_BUDGET);
+    }
+
+    public static PackageSolver newInstance(final PackerMetrics metrics, final long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudget);
+        }
+        return new VectorKnapsackSolver(metrics, memoryBudget);
+    }
+
+    private final PackerMetrics metrics;
+    private final long memoryBudget;
+
+    private VectorKnapsackSolver(final PackerMetrics metrics, final long memoryBudget) {
+        this.metrics = metrics;
+        this.memoryBudget = memoryBudget;
+    }
+
+    @Override
+    public OptimizedPackage solve(final InboundPackage inboundPackage) {
+        final FixedPointPackage fixedPointPackage = FixedPointPackage.of(inboundPackage);
+
+        final KnapsackPlan plan = KnapsackPlan.of(fixedPointPackage, this.memoryBudget);
+        final BitSet selection = switch (plan) {
+            case DENSE -> VECTOR_API_AVAILABLE
+                    ? VectorKnapsackEngine.select(fixedPointPackage)
+                    : DenseKnapsackEngine.select(fixedPointPackage);
+            case RECURSIVE -> RecursiveKnapsackEngine.select(fixedPointPackage,
+                    KnapsackPlan.recursiveLeafBudgetBits(fixedPointPackage, this.memoryBudget),
+                    VECTOR_API_AVAILABLE ? VectorKnapsackEngine.ROW_UPDATE : RecursiveKnapsackEngine.SCALAR);
+            case PARETO -> ParetoFrontierEngine.select(fixedPointPackage, this.memoryBudget);
+        };
+        if (plan != KnapsackPlan.PARETO) {
+            this.metrics.increment(Counter.DP_CELLS, fixedPointPackage.cells());
+        }
+
+        return fixedPointPackage.toOptimizedPackage(selection);
+    }
+}
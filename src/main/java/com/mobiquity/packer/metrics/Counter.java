@@ -0,0 +1,12 @@
+package com.mobiquity.packer.metrics;
+
+public enum Counter {
+    LINES,
+    ITEMS,
+    FILTERED_ITEMS,
+    DP_CELLS,
+    VALIDATION_FAILURES,
+    BYTES_READ,
+    REQUESTS,
+    BATCHES
+}
@@ -0,0 +1,39 @@
+package com.mobiquity.packer.metrics;
+
+import com.mobiquity.packer.metrics.impl.NoopMetrics;
+import com.mobiquity.packer.metrics.impl.SummaryMetrics;
+
+import java.util.Locale;
+
+public interface PackerMetrics {
+
+    String SYSTEM_PROPERTY = "packer.metrics";
+
+    static PackerMetrics noop() {
+        return NoopMetrics.INSTANCE;
+    }
+
+    static PackerMetrics getDefaultInstance() {
+        final String value = System.getProperty(SYSTEM_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return noop();
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "NONE" -> noop();
+            case "TEXT" -> SummaryMetrics.newInstance(summary -> System.err.println(summary.toText()));
+            case "JSON" -> SummaryMetrics.newInstance(summary -> System.err.println(summary.toJson()));
+            default -> throw new IllegalArgumentException("Unknown metrics exporter: " + value);
+        };
+    }
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    void recordLatency(Stage stage, long nanos);
+
+    void increment(Counter counter, long delta);
+
+    default void runCompleted() {
+    }
+}
@@ -0,0 +1,14 @@
+package com.mobiquity.packer.metrics;
+
+public enum Stage {
+    PARSE,
+    VALIDATE,
+    SOLVE,
+    FORMAT,
+    /**
+     * A whole line, from reading it until its output is written.
+     */
+    LINE,
+    RUN,
+    REQUEST
+}
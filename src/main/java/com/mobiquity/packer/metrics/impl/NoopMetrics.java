@@ -0,0 +1,26 @@
+package com.mobiquity.packer.metrics.impl;
+
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+
+public final class NoopMetrics implements PackerMetrics {
+
+    public static final PackerMetrics INSTANCE = new NoopMetrics();
+
+    private NoopMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordLatency(final Stage stage, final long nanos) {
+    }
+
+    @Override
+    public void increment(final Counter counter, final long delta) {
+    }
+}
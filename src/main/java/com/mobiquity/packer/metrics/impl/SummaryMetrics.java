@@ -0,0 +1,100 @@
+package com.mobiquity.packer.metrics.impl;
+
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+public final class SummaryMetrics implements PackerMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    public static SummaryMetrics newInstance() {
+        return new SummaryMetrics(summary -> {
+        });
+    }
+
+    public static SummaryMetrics newInstance(final Consumer<SummaryMetrics> reporter) {
+        return new SummaryMetrics(reporter);
+    }
+
+    private final Map<Stage, LatencyHistogram> latencies = new EnumMap<>(Stage.class);
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Consumer<SummaryMetrics> reporter;
+
+    private SummaryMetrics(final Consumer<SummaryMetrics> reporter) {
+        this.reporter = reporter;
+        for (final Stage stage : Stage.values()) {
+            this.latencies.put(stage, new LatencyHistogram());
+        }
+        for (final Counter counter : Counter.values()) {
+            this.counters.put(counter, new LongAdder());
+        }
+    }
+
+    @Override
+    public void recordLatency(final Stage stage, final long nanos) {
+        this.latencies.get(stage).record(nanos);
+    }
+
+    @Override
+    public void increment(final Counter counter, final long delta) {
+        this.counters.get(counter).add(delta);
+    }
+
+    @Override
+    public void runCompleted() {
+        this.reporter.accept(this);
+    }
+
+    public long count(final Counter counter) {
+        return this.counters.get(counter).sum();
+    }
+
+    public long count(final Stage stage) {
+        return this.latencies.get(stage).count();
+    }
+
+    public long percentileNanos(final Stage stage, final double percentile) {
+        return this.latencies.get(stage).percentile(percentile);
+    }
+
+    public String toText() {
+        final StringBuilder text = new StringBuilder("Packer metrics\n");
+        for (final Counter counter : Counter.values()) {
+            text.append(String.format(Locale.ROOT, "  %-20s %d%n", counter, this.count(counter)));
+        }
+        for (final Stage stage : Stage.values()) {
+            final LatencyHistogram histogram = this.latencies.get(stage);
+            text.append(String.format(Locale.ROOT, "  %-20s count=%d total=%.3fms p50=%.3fms p99=%.3fms max=%.3fms%n",
+                    stage, histogram.count(), millis(histogram.total()), millis(histogram.percentile(50)),
+                    millis(histogram.percentile(99)), millis(histogram.max())));
+        }
+        return text.toString();
+    }
+
+    public String toJson() {
+        final StringJoiner counters = new StringJoiner(",", "{", "}");
+        for (final Counter counter : Counter.values()) {
+            counters.add("\"" + counter.name().toLowerCase(Locale.ROOT) + "\":" + this.count(counter));
+        }
+        final StringJoiner stages = new StringJoiner(",", "{", "}");
+        for (final Stage stage : Stage.values()) {
+            final LatencyHistogram histogram = this.latencies.get(stage);
+            stages.add(String.format(Locale.ROOT, "\"%s\":{\"count\":%d,\"totalNanos\":%d,\"p50Nanos\":%d,\"p99Nanos\":%d,\"maxNanos\":%d}",
+                    stage.name().toLowerCase(Locale.ROOT), histogram.count(), histogram.total(), histogram.percentile(50),
+                    histogram.percentile(99), histogram.max()));
+        }
+        return "{\"counters\":" + counters + ",\"stages\":" + stages + "}";
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,8 @@
+package com.mobiquity.packer.model;
+
+/**
+ * Result of an approximate solve: the selected items cost at least {@code achievedRatio} times the optimum, which is
+ * never less than {@code 1 - epsilon}.
+ */
+public record ApproximatePackage(OptimizedPackage optimizedPackage, double epsilon, double achievedRatio) {
+}
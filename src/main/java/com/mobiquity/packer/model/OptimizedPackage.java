@@ -1,7 +1,6 @@
 package com.mobiquity.packer.model;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 public record OptimizedPackage(int weightLimit, List<Item> items) {
 
@@ -10,9 +9,14 @@ public record OptimizedPackage(int weightLimit, List<Item> items) {
             return "-";
         }
 
-        return this.items.stream()
-                .map(item -> String.valueOf(item.index()))
-                .collect(Collectors.joining(","));
+        final StringBuilder text = new StringBuilder(this.items.size() * 3);
+        for (final Item item : this.items) {
+            if (!text.isEmpty()) {
+                text.append(',');
+            }
+            text.append(item.index());
+        }
+        return text.toString();
     }
 
     public List<Integer> indices() {
@@ -0,0 +1,130 @@
+package com.mobiquity.packer.service;
+
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects lines submitted by concurrent requests and hands them to the executor in batches of up to
+ * {@code maxBatchSize} lines, waiting at most {@code maxDelayNanos} after the first line of a batch for more to arrive.
+ */
+final class MicroBatcher implements AutoCloseable {
+
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final Function<String, String> handler;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final PackerMetrics metrics;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    MicroBatcher(final Function<String, String> handler, final Executor executor, final int maxBatchSize, final long maxDelayNanos,
+                 final PackerMetrics metrics) {
+        if (maxBatchSize <= 0 || maxDelayNanos < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and batch delay must not be negative");
+        }
+        this.handler = handler;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelayNanos;
+        this.metrics = metrics;
+        this.dispatcher = new Thread(this::dispatch, "packer-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    CompletableFuture<String> submit(final String line) {
+        final Task task = new Task(line, new CompletableFuture<>());
+        this.queue.add(task);
+        if (!this.running) {
+            this.failPending();
+        }
+        return task.result();
+    }
+
+    @Override
+    public void close() {
+        this.running = false;
+        this.dispatcher.interrupt();
+        try {
+            this.dispatcher.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.failPending();
+    }
+
+    private void dispatch() {
+        final List<Task> batch = new ArrayList<>(this.maxBatchSize);
+        while (this.running) {
+            try {
+                this.collect(batch);
+            } catch (final InterruptedException e) {
+                this.queue.addAll(batch);
+                break;
+            }
+
+            final Task[] tasks = batch.toArray(new Task[0]);
+            batch.clear();
+            this.metrics.increment(Counter.BATCHES, 1);
+            try {
+                this.executor.execute(() -> this.run(tasks));
+            } catch (final RejectedExecutionException e) {
+                for (final Task task : tasks) {
+                    task.result().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void collect(final List<Task> batch) throws InterruptedException {
+        batch.add(this.queue.take());
+        final long deadline = System.nanoTime() + this.maxDelayNanos;
+        while (batch.size() < this.maxBatchSize) {
+            if (this.queue.drainTo(batch, this.maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            final long remaining = deadline - System.nanoTime();
+            final Task task = remaining > 0 ? this.queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (task == null) {
+                return;
+            }
+            batch.add(task);
+        }
+    }
+
+    private void run(final Task[] tasks) {
+        for (final Task task : tasks) {
+            if (task.result().isDone()) {
+                // Cancelled by a request that timed out.
+                continue;
+            }
+            try {
+                task.result().complete(this.handler.apply(task.line()));
+            } catch (final Throwable e) {
+                // Errors too, otherwise a request would wait for a result that never comes.
+                task.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void failPending() {
+        Task task;
+        while ((task = this.queue.poll()) != null) {
+            task.result().completeExceptionally(new IllegalStateException("Packer service is closed"));
+        }
+    }
+
+    private record Task(String line, CompletableFuture<String> result) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.mobiquity.packer.service;
+
+import com.mobiquity.exception.PackerValidationException;
+import com.mobiquity.packer.ExecutorType;
+import com.mobiquity.packer.InputParser;
+import com.mobiquity.packer.PackageSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.metrics.impl.SummaryMetrics;
+import com.mobiquity.packer.model.OptimizedPackage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps one warmed up packer behind the JDK {@link HttpServer}:
+ * <ul>
+ *     <li>{@code POST /pack} takes one or more input lines (a single line or a whole file) and answers with one output
+ *     line per input line, exactly like {@code Packer.pack};</li>
+ *     <li>{@code GET /stats} reports the throughput and the latency percentiles as JSON.</li>
+ * </ul>
+ * Lines of concurrent requests are micro-batched onto one shared worker pool.
+ */
+public final class PackerService implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    public static final long DEFAULT_MAX_BATCH_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    public static final long DEFAULT_REQUEST_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final String LINE_SEPARATOR = "\n";
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    public static PackerService start(final InetSocketAddress address, final ExecutorType executorType, final int parallelism)
+            throws IOException {
+        return start(address, executorType, parallelism, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_BATCH_DELAY_NANOS);
+    }
+
+    public static PackerService start(final InetSocketAddress address, final ExecutorType executorType, final int parallelism,
+                                      final int maxBatchSize, final long maxBatchDelayNanos) throws IOException {
+        return start(address, executorType, parallelism, maxBatchSize, maxBatchDelayNanos, DEFAULT_REQUEST_TIMEOUT_NANOS);
+    }
+
+    /**
+     * @param requestTimeoutNanos how long a {@code POST /pack} waits for all of its lines before answering with status 503
+     */
+    public static PackerService start(final InetSocketAddress address, final ExecutorType executorType, final int parallelism,
+                                      final int maxBatchSize, final long maxBatchDelayNanos, final long requestTimeoutNanos)
+            throws IOException {
+        if (requestTimeoutNanos <= 0) {
+            throw new IllegalArgumentException("Request timeout must be positive: " + requestTimeoutNanos);
+        }
+        final ExecutorService workers = executorType.create(parallelism);
+        try {
+            final PackerService service = new PackerService(address, workers, maxBatchSize, maxBatchDelayNanos, requestTimeoutNanos);
+            service.server.start();
+            return service;
+        } catch (final IOException | RuntimeException e) {
+            workers.shutdownNow();
+            throw e;
+        }
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        final int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        final PackerService service = start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), ExecutorType.FORK_JOIN, parallelism);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+        System.err.println("Packer service listening on " + service.address());
+    }
+
+    private final SummaryMetrics metrics = SummaryMetrics.newInstance();
+    private final long startNanos = System.nanoTime();
+    private final InputParser inputParser;
+    private final PackageSolver packageSolver;
+    private final long requestTimeoutNanos;
+    private final ExecutorService workers;
+    private final ExecutorService handlers;
+    private final MicroBatcher batcher;
+    private final HttpServer server;
+
+    private PackerService(final InetSocketAddress address, final ExecutorService workers, final int maxBatchSize,
+                          final long maxBatchDelayNanos, final long requestTimeoutNanos) throws IOException {
+        this.requestTimeoutNanos = requestTimeoutNanos;
+        this.inputParser = InputParser.getDefaultInstance(this.metrics);
+        this.packageSolver = PackageSolver.getDefaultInstance(this.metrics);
+        this.workers = workers;
+        this.batcher = new MicroBatcher(this::solveLine, workers, maxBatchSize, maxBatchDelayNanos, this.metrics);
+        this.handlers = Executors.newCachedThreadPool();
+
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(this.handlers);
+        this.server.createContext("/pack", this::handlePack);
+        this.server.createContext("/stats", this::handleStats);
+    }
+
+    public InetSocketAddress address() {
+        return this.server.getAddress();
+    }
+
+    public SummaryMetrics metrics() {
+        return this.metrics;
+    }
+
+    public String statsJson() {
+        final long uptimeNanos = System.nanoTime() - this.startNanos;
+        final long lines = this.metrics.count(Counter.LINES);
+        return String.format(Locale.ROOT,
+                "{\"uptimeMillis\":%d,\"requests\":%d,\"lines\":%d,\"batches\":%d,\"linesPerSecond\":%.1f,"
+                        + "\"requestP50Nanos\":%d,\"requestP99Nanos\":%d,\"metrics\":%s}",
+                TimeUnit.NANOSECONDS.toMillis(uptimeNanos), this.metrics.count(Counter.REQUESTS), lines,
+                this.metrics.count(Counter.BATCHES), lines * NANOS_PER_SECOND / Math.max(1, uptimeNanos),
+                this.metrics.percentileNanos(Stage.REQUEST, 50), this.metrics.percentileNanos(Stage.REQUEST, 99),
+                this.metrics.toJson());
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.batcher.close();
+        this.workers.shutdown();
+        this.handlers.shutdown();
+    }
+
+    private String solveLine(final String line) {
+        final OptimizedPackage optimizedPackage = this.packageSolver.solve(this.inputParser.parse(line));
+
+        final long start = System.nanoTime();
+        final String text = optimizedPackage.toText();
+        this.metrics.recordLatency(Stage.FORMAT, System.nanoTime() - start);
+        return text;
+    }
+
+    private void handlePack(final HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "Use POST");
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final long deadline = start + this.requestTimeoutNanos;
+        int status;
+        String body;
+        List<CompletableFuture<String>> results = List.of();
+        try {
+            final List<String> lines;
+            try (final BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+                lines = reader.lines().toList();
+            }
+
+            results = lines.stream().map(this.batcher::submit).toList();
+            final StringBuilder output = new StringBuilder();
+            for (final CompletableFuture<String> result : results) {
+                if (!output.isEmpty()) {
+                    output.append(LINE_SEPARATOR);
+                }
+                output.append(result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+            status = 200;
+            body = output.toString();
+        } catch (final ExecutionException e) {
+            status = e.getCause() instanceof PackerValidationException ? 400 : 500;
+            body = String.valueOf(e.getCause().getMessage());
+        } catch (final TimeoutException e) {
+            results.forEach(result -> result.cancel(false));
+            status = 503;
+            body = "Timed out";
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 503;
+            body = "Interrupted";
+        } finally {
+            this.metrics.increment(Counter.REQUESTS, 1);
+            this.metrics.recordLatency(Stage.REQUEST, System.nanoTime() - start);
+        }
+        // Counted before the response is sent, so a client seeing the response also sees its request in the stats.
+        respond(exchange, status, body);
+    }
+
+    private void handleStats(final HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        respond(exchange, 200, this.statsJson());
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (final OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -2,28 +2,80 @@ package com.mobiquity.packer;
 
 import com.mobiquity.exception.APIException;
 import com.mobiquity.exception.PackerValidationException;
+import com.mobiquity.packer.impl.AdaptiveSolver;
+import com.mobiquity.packer.impl.ApproximateSolver;
+import com.mobiquity.packer.impl.BinaryPackageConverter;
+import com.mobiquity.packer.impl.BudgetedSolver;
+import com.mobiquity.packer.impl.ByteInputParser;
+import com.mobiquity.packer.impl.CachingSolver;
+import com.mobiquity.packer.impl.KnapsackSession;
+import com.mobiquity.packer.impl.KnapsackSolver;
+import com.mobiquity.packer.impl.LargeInstanceSolver;
+import com.mobiquity.packer.impl.MultiFilePacker;
+import com.mobiquity.packer.impl.OutputEncoder;
+import com.mobiquity.packer.impl.ParallelKnapsackSolver;
+import com.mobiquity.packer.impl.PreprocessingSolver;
+import com.mobiquity.packer.impl.ResumablePacker;
+import com.mobiquity.packer.impl.ScratchKnapsackSolver;
+import com.mobiquity.packer.impl.SubsetEnumerationSolver;
+import com.mobiquity.packer.impl.VectorKnapsackSolver;
+import com.mobiquity.packer.metrics.Counter;
+import com.mobiquity.packer.metrics.PackerMetrics;
+import com.mobiquity.packer.metrics.Stage;
+import com.mobiquity.packer.metrics.impl.SummaryMetrics;
+import com.mobiquity.packer.model.ApproximatePackage;
 import com.mobiquity.packer.model.InboundPackage;
 import com.mobiquity.packer.model.Item;
 import com.mobiquity.packer.model.OptimizedPackage;
+import com.mobiquity.packer.service.PackerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PackerTest {
     private PackageSolver packageSolver;
@@ -44,6 +96,65 @@ class PackerTest {
         assertEquals(expectedOutput, output);
     }
 
+    @ParameterizedTest
+    @MethodSource("validInputAndExpectedOutputTestCaseInputProvider")
+    void packToStream_ValidInput_WritesExpectedOutput(final String filPath, final String expectedOutput) throws APIException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        Packer.pack(Path.of(filPath), new BufferedOutputStream(output, 1 << 16));
+
+        assertEquals(expectedOutput, output.toString(StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @MethodSource("validInputAndExpectedOutputTestCaseInputProvider")
+    void packInParallel_ValidInput_ReturnsExpectedOutput(final String filPath, final String expectedOutput) throws APIException {
+        try (final ParallelPacker parallelPacker = ParallelPacker.newInstance(ForkJoinPool.commonPool(), 1, 2)) {
+            final String output = parallelPacker.pack(filPath);
+
+            assertEquals(expectedOutput, output);
+        }
+    }
+
+    @Test
+    void encode_SmallBuffer_WritesSameTextAsToText() throws IOException {
+        final List<OptimizedPackage> optimizedPackages = List.of(
+                new OptimizedPackage(10, List.of()),
+                new OptimizedPackage(10, List.of(new Item(0, BigDecimal.ONE, BigDecimal.ONE), new Item(7, BigDecimal.ONE, BigDecimal.ONE))),
+                new OptimizedPackage(10, List.of(new Item(Integer.MAX_VALUE, BigDecimal.ONE, BigDecimal.ONE),
+                        new Item(Integer.MIN_VALUE, BigDecimal.ONE, BigDecimal.ONE), new Item(1234567, BigDecimal.ONE, BigDecimal.ONE))));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final OutputEncoder outputEncoder = OutputEncoder.newInstance(Channels.newChannel(output), 12);
+
+        for (int i = 0; i < optimizedPackages.size(); i++) {
+            if (i > 0) {
+                outputEncoder.newLine();
+            }
+            outputEncoder.encode(optimizedPackages.get(i));
+        }
+        outputEncoder.flush();
+
+        assertEquals(optimizedPackages.stream().map(OptimizedPackage::toText).collect(Collectors.joining("\n")),
+                output.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void packWithMetrics_ValidInput_RecordsStagesAndCounters() throws APIException {
+        final SummaryMetrics metrics = SummaryMetrics.newInstance();
+
+        Packer.pack(Path.of(getResourcePath("example_input")), new StringWriter(), metrics);
+
+        assertEquals(4, metrics.count(Counter.LINES));
+        assertEquals(25, metrics.count(Counter.ITEMS));
+        assertEquals(8, metrics.count(Counter.FILTERED_ITEMS));
+        assertEquals(0, metrics.count(Counter.VALIDATION_FAILURES));
+        assertEquals(4, metrics.count(Stage.PARSE));
+        assertEquals(4, metrics.count(Stage.SOLVE));
+        assertEquals(4, metrics.count(Stage.FORMAT));
+        assertEquals(4, metrics.count(Stage.LINE));
+        assertEquals(1, metrics.count(Stage.RUN));
+    }
+
     @ParameterizedTest
     @MethodSource("invalidInputThenThrowAPIExceptionTestCaseInputProvider")
     void pack_InvalidInput_ThrowsAPIException(final String filPath, final APIException exception) {
@@ -59,6 +170,18 @@ class PackerTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("invalidInputThenThrowAPIExceptionTestCaseInputProvider")
+    void packInParallel_InvalidInput_ThrowsAPIExceptionFromExecutor(final String filPath, final APIException exception) {
+        try (final ParallelPacker parallelPacker = ParallelPacker.newInstance(ForkJoinPool.commonPool(), 1, 2)) {
+            final APIException actual = assertThrowsExactly(exception.getClass(), () -> parallelPacker.pack(filPath));
+
+            assertEquals(exception.getMessage(), actual.getMessage());
+            assertEquals(exception.getCause().getClass(), actual.getCause().getClass());
+            assertEquals(exception.getCause().getMessage(), actual.getCause().getMessage());
+        }
+    }
+
 
     @Test
     void parseItems_ValidInput_ReturnsParsedItems() {
@@ -92,6 +215,111 @@ class PackerTest {
         assertEquals(exceptionDetail, message);
     }
 
+    @ParameterizedTest
+    @MethodSource("invalidDataAndExceptionTestCaseInputProvider")
+    void parseBytes_InValidInput_ThrowsValidationException(final String invalidLine, final String exceptionDetail) {
+        final InputParser byteInputParser = InputParser.getInstance(ParserType.BYTE);
+
+        final String message = assertThrowsExactly(PackerValidationException.class, () -> byteInputParser.parse(invalidLine))
+                .getMessage();
+
+        assertEquals(exceptionDetail, message);
+    }
+
+    @ParameterizedTest
+    @MethodSource("validInputAndExpectedOutputTestCaseInputProvider")
+    void parseFile_ByteParser_ReturnsSamePackagesAsTextParser(final String filPath) throws IOException {
+        final InputParser byteInputParser = InputParser.getInstance(ParserType.BYTE);
+
+        try (final Stream<InboundPackage> expected = this.inputParser.parse(Path.of(filPath));
+             final Stream<InboundPackage> actual = byteInputParser.parse(Path.of(filPath))) {
+
+            assertEquals(expected.toList(), actual.toList());
+        }
+    }
+
+    @Test
+    void parseFile_ByteParserTinyRegions_ReturnsSamePackagesAsTextParser(@TempDir final Path directory) throws IOException {
+        final List<String> lines = new ArrayList<>(Files.readAllLines(Path.of(getResourcePath("example_input")), StandardCharsets.UTF_8));
+        lines.sort(Comparator.comparingInt(String::length).reversed());
+        lines.add(0, "8 : (1,15.3,€34)");
+        final String[] separators = {"\n", "\r\n", "\r"};
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            text.append(lines.get(i)).append(separators[i % separators.length]);
+        }
+        final Path input = Files.writeString(directory.resolve("input"), text, StandardCharsets.UTF_8);
+        final InputParser textInputParser = InputParser.getInstance(ParserType.TEXT);
+        final int longestLine = lines.get(1).getBytes(StandardCharsets.UTF_8).length;
+        final int crlfSplit = (lines.get(0) + "\n" + lines.get(1) + "\r").getBytes(StandardCharsets.UTF_8).length;
+
+        // Every region ends inside the longest line for some size, and the first one ends between its \r and \n at
+        // crlfSplit; later regions are mapped from the line that crossed the boundary and end elsewhere.
+        for (int regionSize = longestLine + 2; regionSize <= crlfSplit + longestLine; regionSize++) {
+            final InputParser byteInputParser = ByteInputParser.newInstance(InputValidator.getInstance(), regionSize);
+
+            try (final Stream<InboundPackage> expected = textInputParser.parse(input);
+                 final Stream<InboundPackage> actual = byteInputParser.parse(input)) {
+
+                assertEquals(expected.toList(), actual.toList(), "Region size " + regionSize);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("validInputAndExpectedOutputTestCaseInputProvider")
+    void parseFile_BinaryParser_ReturnsConvertedPackages(final String filPath) throws IOException {
+        final Path binaryPath = Files.createTempFile("packages", ".bin");
+        try {
+            BinaryPackageConverter.convert(Path.of(filPath), binaryPath);
+
+            try (final Stream<InboundPackage> expected = this.inputParser.parse(Path.of(filPath));
+                 final Stream<InboundPackage> actual = PackageReader.getInstance(ParserType.BINARY, PackerMetrics.noop()).read(binaryPath)) {
+
+                assertEquals(expected.toList(), actual.toList());
+            }
+        } finally {
+            Files.delete(binaryPath);
+        }
+    }
+
+    @Test
+    void parseFile_BinaryRecordLengthBeyondLimits_ThrowsFormatError() throws IOException {
+        final Path binaryPath = Files.createTempFile("packages", ".bin");
+        try {
+            BinaryPackageConverter.convert(Path.of(getResourcePath("example_input")), binaryPath);
+            final int firstRecordOffset = 8;
+            final byte[] bytes = Files.readAllBytes(binaryPath);
+            ByteBuffer.wrap(bytes).putInt(firstRecordOffset, Integer.MAX_VALUE - Integer.BYTES);
+            Files.write(binaryPath, bytes);
+
+            try (final Stream<InboundPackage> actual = PackageReader.getInstance(ParserType.BINARY, PackerMetrics.noop()).read(binaryPath)) {
+                final UncheckedIOException exception = assertThrowsExactly(UncheckedIOException.class, actual::toList);
+                assertEquals("Invalid record length " + (Integer.MAX_VALUE - Integer.BYTES) + " at offset " + firstRecordOffset,
+                        exception.getCause().getMessage());
+            }
+        } finally {
+            Files.delete(binaryPath);
+        }
+    }
+
+    @Test
+    void getInstance_BinaryParserType_IsOnlyAvailableAsPackageReader() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> InputParser.getInstance(ParserType.BINARY));
+    }
+
+    @Test
+    void parse_ConfiguredLimits_AcceptsMoreItems() throws IOException {
+        final PackerLimits limits = PackerLimits.challenge().withMaxItems(20);
+        final InputParser largeInputParser = InputParser.getInstance(ParserType.TEXT, InputValidator.getInstance(limits));
+        final String line = Files.readString(Path.of(getResourcePath("invalid_input4")), StandardCharsets.UTF_8).strip();
+
+        final InboundPackage inboundPackage = largeInputParser.parse(line);
+
+        assertEquals(18, inboundPackage.items().size());
+        assertEquals("8,9,17,18", this.packageSolver.solve(inboundPackage).toText());
+    }
+
     @Test
     void solve_ValidInput_ReturnsOptimizedPackage() {
         final List<Item> items = List.of(
@@ -115,6 +343,458 @@ class PackerTest {
         assertEquals(expectedIndices, optimizedPackage.indices());
     }
 
+    @Test
+    void solve_FractionalWeights_DoesNotExceedWeightLimit() {
+        final List<Item> items = List.of(
+                new Item(1, new BigDecimal("40.9"), new BigDecimal("10")),
+                new Item(2, new BigDecimal("40.9"), new BigDecimal("10")),
+                new Item(3, new BigDecimal("40.1"), new BigDecimal("5"))
+        );
+
+        final OptimizedPackage optimizedPackage = this.packageSolver.solve(new InboundPackage(81, items));
+
+        assertEquals("1,3", optimizedPackage.toText());
+    }
+
+    @ParameterizedTest
+    @MethodSource("solverTypeAndExpectedOutputTestCaseInputProvider")
+    void solve_AnySolverType_ReturnsExpectedOutput(final SolverType solverType, final String filPath, final String expectedOutput) throws IOException {
+        final PackageSolver solver = PackageSolver.getInstance(solverType);
+
+        final String output = Files.readAllLines(Path.of(filPath), StandardCharsets.UTF_8).stream()
+                .map(this.inputParser::parse)
+                .map(solver::solve)
+                .map(OptimizedPackage::toText)
+                .collect(Collectors.joining("\n"));
+
+        assertEquals(expectedOutput, output);
+    }
+
+    @ParameterizedTest
+    @EnumSource(SolverType.class)
+    void solve_LargeLimitsWithDecimalWeights_ReturnsExpectedOutput(final SolverType solverType) {
+        final InputParser largeInputParser = InputParser.getInstance(ParserType.TEXT, InputValidator.getInstance(PackerLimits.large()));
+        final InboundPackage inboundPackage = largeInputParser.parse(
+                "10000000 : (1,1.234,€1000000000) (2,9999999.5,€999999999) (3,5000000.25,€600000000) (4,4999999.75,€500000000)");
+
+        assertEquals("1,3", PackageSolver.getInstance(solverType).solve(inboundPackage).toText());
+    }
+
+    @ParameterizedTest
+    @EnumSource(SolverType.class)
+    void solve_DenseRowBeyondMemoryBudget_ReturnsExpectedOutput(final SolverType solverType) {
+        final InboundPackage inboundPackage = this.inputParser.parse("100 : (1,1.1234567,€5) (2,50,€6)");
+
+        assertEquals("1,2", PackageSolver.getInstance(solverType).solve(inboundPackage).toText());
+    }
+
+    @Test
+    void solve_WeightLimitBeyondFixedPointRange_ThrowsValidationException() {
+        final InboundPackage inboundPackage = new InboundPackage(10_000_000, List.of(
+                new Item(1, new BigDecimal("1.000000000001"), new BigDecimal("1")),
+                new Item(2, new BigDecimal("9999999"), new BigDecimal("2"))));
+
+        assertThrowsExactly(PackerValidationException.class, () -> this.packageSolver.solve(inboundPackage));
+    }
+
+    @Test
+    void solve_RandomPackages_AllEnginesMatchKnapsack() {
+        final List<PackageSolver> solvers = List.of(
+                SubsetEnumerationSolver.newInstance(15),
+                SubsetEnumerationSolver.newInstance(0),
+                LargeInstanceSolver.newInstance(0),
+                ScratchKnapsackSolver.getInstance(),
+                PreprocessingSolver.newInstance(KnapsackSolver.getInstance()),
+                PreprocessingSolver.newInstance(SubsetEnumerationSolver.newInstance(0)),
+                VectorKnapsackSolver.getInstance(),
+                ParallelKnapsackSolver.newInstance(ForkJoinPool.commonPool(), 64),
+                AdaptiveSolver.newInstance(new AdaptiveSolver.Thresholds(1e-9, 1, Long.MAX_VALUE), PackerMetrics.noop(), decision -> {
+                }),
+                AdaptiveSolver.newInstance(new AdaptiveSolver.Thresholds(1e9, 1, 1), PackerMetrics.noop(), decision -> {
+                })
+        );
+        final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+        final Random random = new Random(42);
+
+        for (int run = 0; run < 500; run++) {
+            final InboundPackage inboundPackage = randomPackage(random);
+            final OptimizedPackage expected = knapsackSolver.solve(inboundPackage);
+
+            for (final PackageSolver solver : solvers) {
+                assertEquals(expected, solver.solve(inboundPackage), inboundPackage::toString);
+            }
+        }
+    }
+
+    @Test
+    void solve_ManyItemsBeyondMemoryBudget_ReturnsSameSelectionAsDenseTable() {
+        final Random random = new Random(7);
+        final List<Item> items = new ArrayList<>(1000);
+        for (int index = 1; index <= 1000; index++) {
+            items.add(new Item(index, BigDecimal.valueOf(1 + random.nextInt(100)), BigDecimal.valueOf(1 + random.nextInt(100))));
+        }
+        final InboundPackage inboundPackage = new InboundPackage(1000, items);
+        final OptimizedPackage expected = KnapsackSolver.getInstance().solve(inboundPackage);
+
+        // 100,000 bytes hold the 11 rows of the recursive engine but not the 125,128 bytes of decision bits
+        assertEquals(expected, KnapsackSolver.newInstance(PackerMetrics.noop(), 100_000).solve(inboundPackage));
+        assertEquals(expected, ParallelKnapsackSolver.newInstance(ForkJoinPool.commonPool(), 64, PackerMetrics.noop(), 100_000).solve(inboundPackage));
+        assertEquals(expected, VectorKnapsackSolver.newInstance(PackerMetrics.noop(), 100_000).solve(inboundPackage));
+        assertEquals(expected, ScratchKnapsackSolver.newInstance(PackerMetrics.noop(), 100_000).solve(inboundPackage));
+    }
+
+    @Test
+    void solve_ParetoFrontierBeyondMemoryBudget_ThrowsValidationException() {
+        final Random random = new Random(7);
+        final List<Item> items = new ArrayList<>(1000);
+        for (int index = 1; index <= 1000; index++) {
+            items.add(new Item(index, BigDecimal.valueOf(1 + random.nextInt(100)), BigDecimal.valueOf(1 + random.nextInt(100))));
+        }
+        final InboundPackage inboundPackage = new InboundPackage(1000, items);
+
+        final PackerValidationException exception = assertThrowsExactly(PackerValidationException.class,
+                () -> KnapsackSolver.newInstance(PackerMetrics.noop(), 64).solve(inboundPackage));
+        assertEquals("Package cannot be solved within the memory budget of 64 bytes", exception.getMessage());
+    }
+
+    @Test
+    void solve_Preprocessed_ReturnsSameOutputWithSmallerTable() {
+        final SummaryMetrics plainMetrics = SummaryMetrics.newInstance();
+        final SummaryMetrics preprocessedMetrics = SummaryMetrics.newInstance();
+        final PackageSolver plainSolver = KnapsackSolver.newInstance(plainMetrics);
+        final PackageSolver preprocessedSolver = PreprocessingSolver.newInstance(KnapsackSolver.newInstance(preprocessedMetrics));
+        final Random random = new Random(7);
+
+        for (int run = 0; run < 200; run++) {
+            final List<Item> items = new ArrayList<>();
+            for (int index = 1; index <= 15; index++) {
+                final BigDecimal weight = index > 1 && random.nextInt(4) == 0
+                        ? items.get(random.nextInt(items.size())).weight()
+                        : BigDecimal.valueOf(25L * (1 + random.nextInt(120)), 2);
+                items.add(new Item(index, weight, BigDecimal.valueOf(1 + random.nextInt(10))));
+            }
+            final InboundPackage inboundPackage = new InboundPackage(20 + random.nextInt(81), items);
+
+            assertEquals(plainSolver.solve(inboundPackage), preprocessedSolver.solve(inboundPackage), inboundPackage::toString);
+        }
+
+        assertTrue(preprocessedMetrics.count(Counter.DP_CELLS) * 10 < plainMetrics.count(Counter.DP_CELLS));
+    }
+
+    @Test
+    void solve_AdaptiveSolverFromConfig_RecordsEngineOfEachPackage() throws IOException {
+        final Path config = Files.createTempFile("adaptive", ".properties");
+        try {
+            Files.writeString(config, "nanosPerSubset=1\nnanosPerDenseCell=1\ndenseCellLimit=1000\n");
+            final List<AdaptiveSolver.Engine> engines = new ArrayList<>();
+            final AdaptiveSolver adaptiveSolver = AdaptiveSolver.newInstance(AdaptiveSolver.Thresholds.load(config), PackerMetrics.noop(),
+                    decision -> engines.add(decision.engine()));
+            final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+
+            final String manyItems = IntStream.rangeClosed(1, 15)
+                    .mapToObj(index -> "(" + index + "," + (10 + index * 7 % 50) + ",€" + index + ")")
+                    .collect(Collectors.joining(" "));
+            for (final String line : List.of("10 : (1,5,€1) (2,4,€2)", "20 : (1,15,€10) (2,15,€11) (3,5,€1)", "100 : " + manyItems)) {
+                final InboundPackage inboundPackage = this.inputParser.parse(line);
+                assertEquals(knapsackSolver.solve(inboundPackage), adaptiveSolver.solve(inboundPackage));
+            }
+
+            assertEquals(List.of(AdaptiveSolver.Engine.TRIVIAL, AdaptiveSolver.Engine.SUBSET_ENUMERATION, AdaptiveSolver.Engine.PARETO), engines);
+            assertEquals(1L, adaptiveSolver.counts().get(AdaptiveSolver.Engine.PARETO));
+        } finally {
+            Files.delete(config);
+        }
+    }
+
+    @Test
+    void solveApproximately_RandomPackages_StaysWithinReportedBound() {
+        final ApproximateSolver approximateSolver = ApproximateSolver.newInstance(0.2);
+        final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+        final Random random = new Random(5);
+
+        for (int run = 0; run < 300; run++) {
+            final InboundPackage inboundPackage = randomPackage(random);
+            final ApproximatePackage approximatePackage = approximateSolver.solveApproximately(inboundPackage);
+            final double cost = totalCost(approximatePackage.optimizedPackage()).doubleValue();
+            final double optimalCost = totalCost(knapsackSolver.solve(inboundPackage)).doubleValue();
+
+            assertTrue(totalWeight(approximatePackage.optimizedPackage()).compareTo(BigDecimal.valueOf(inboundPackage.weightLimit())) <= 0);
+            assertTrue(cost >= approximatePackage.achievedRatio() * optimalCost - 1e-9, inboundPackage::toString);
+        }
+    }
+
+    @Test
+    void solve_BudgetBelowBothTables_CoarsensEpsilonAndStaysNearOptimal() {
+        final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+        final PackageSolver budgetedSolver = BudgetedSolver.newInstance(knapsackSolver, ApproximateSolver.newInstance(0.01), 200_000);
+        final Random random = new Random(19);
+
+        for (int run = 0; run < 20; run++) {
+            final List<Item> items = new ArrayList<>();
+            for (int index = 1; index <= 60; index++) {
+                items.add(new Item(index, BigDecimal.valueOf(1 + random.nextInt(100_000), 2), BigDecimal.valueOf(1 + random.nextInt(100))));
+            }
+            final InboundPackage inboundPackage = new InboundPackage(1000, items);
+
+            final OptimizedPackage optimizedPackage = budgetedSolver.solve(inboundPackage);
+
+            assertTrue(totalWeight(optimizedPackage).compareTo(BigDecimal.valueOf(inboundPackage.weightLimit())) <= 0);
+            assertTrue(totalCost(optimizedPackage).doubleValue() >= 0.9 * totalCost(knapsackSolver.solve(inboundPackage)).doubleValue(),
+                    inboundPackage::toString);
+        }
+    }
+
+    @Test
+    void session_RandomChanges_MatchesFullSolve() {
+        final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+        final Random random = new Random(11);
+
+        for (int run = 0; run < 50; run++) {
+            final SolverSession session = SolverSession.open(randomPackage(random));
+            int nextIndex = 100;
+
+            for (int change = 0; change < 60; change++) {
+                final List<Item> items = session.inboundPackage().items();
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> session.addItem(new Item(nextIndex++, BigDecimal.valueOf(1 + random.nextInt(4000), random.nextInt(3)),
+                            BigDecimal.valueOf(1 + random.nextInt(20))));
+                    case 2 -> session.removeItem(items.isEmpty() ? -1 : items.get(random.nextInt(items.size())).index());
+                    default -> session.setWeightLimit(1 + random.nextInt(100));
+                }
+
+                assertEquals(knapsackSolver.solve(session.inboundPackage()), session.solve(), session.inboundPackage()::toString);
+            }
+        }
+    }
+
+    @Test
+    void session_TablesBeyondMemoryBudget_MatchesFullSolve() {
+        for (final String line : List.of("100 : (1,1.1234567,€5) (2,50,€6)", "100 : (1,1.12345678,€5) (2,50,€6)")) {
+            final SolverSession session = SolverSession.open(this.inputParser.parse(line));
+            assertEquals("1,2", session.solve().toText(), line);
+            session.addItem(new Item(3, new BigDecimal("49"), new BigDecimal("7")));
+            assertEquals("2,3", session.solve().toText(), line);
+        }
+
+        final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+        final Random random = new Random(13);
+        for (int run = 0; run < 20; run++) {
+            final SolverSession session = KnapsackSession.newInstance(randomPackage(random), PackerMetrics.noop(), 1 << 14);
+            int nextIndex = 100;
+
+            for (int change = 0; change < 60; change++) {
+                final List<Item> items = session.inboundPackage().items();
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> session.addItem(new Item(nextIndex++, BigDecimal.valueOf(1 + random.nextInt(4000), random.nextInt(3)),
+                            BigDecimal.valueOf(1 + random.nextInt(20))));
+                    case 2 -> session.removeItem(items.isEmpty() ? -1 : items.get(random.nextInt(items.size())).index());
+                    default -> session.setWeightLimit(1 + random.nextInt(100));
+                }
+
+                assertEquals(knapsackSolver.solve(session.inboundPackage()), session.solve(), session.inboundPackage()::toString);
+            }
+        }
+    }
+
+    @Test
+    void service_PostedFile_ReturnsExpectedOutputAndStats() throws Exception {
+        final String input = Files.readString(Path.of(getResourcePath("example_input")), StandardCharsets.UTF_8);
+        final HttpClient client = HttpClient.newHttpClient();
+
+        try (final PackerService service = PackerService.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ExecutorType.FORK_JOIN, 2)) {
+            final URI uri = new URI("http", null, service.address().getAddress().getHostAddress(), service.address().getPort(), "/", null, null);
+
+            final HttpResponse<String> packed = client.send(HttpRequest.newBuilder(uri.resolve("/pack")).POST(HttpRequest.BodyPublishers.ofString(input)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            final HttpResponse<String> invalid = client.send(HttpRequest.newBuilder(uri.resolve("/pack")).POST(HttpRequest.BodyPublishers.ofString("81 : (1,53.38,45)")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(200, packed.statusCode());
+            assertEquals(loadResource("example_output"), packed.body());
+            assertEquals(400, invalid.statusCode());
+            assertEquals(2, service.metrics().count(Counter.REQUESTS));
+            assertTrue(service.statsJson().contains("\"lines\":4"));
+        }
+    }
+
+    @Test
+    void service_BatchSlowerThanRequestTimeout_ReturnsServiceUnavailable() throws Exception {
+        final HttpClient client = HttpClient.newHttpClient();
+
+        try (final PackerService service = PackerService.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), ExecutorType.FORK_JOIN, 2,
+                PackerService.DEFAULT_MAX_BATCH_SIZE, TimeUnit.SECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(50))) {
+            final URI uri = new URI("http", null, service.address().getAddress().getHostAddress(), service.address().getPort(), "/", null, null);
+
+            final HttpResponse<String> timedOut = client.send(HttpRequest.newBuilder(uri.resolve("/pack")).POST(HttpRequest.BodyPublishers.ofString("8 : (1,15.3,€34)")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+
+            assertEquals(503, timedOut.statusCode());
+            assertEquals("Timed out", timedOut.body());
+            assertEquals(1, service.metrics().count(Counter.REQUESTS));
+        }
+    }
+
+    @Test
+    void resumablePack_CrashAfterCheckpoint_ResumesWithSameOutputAndErrors(@TempDir final Path directory) throws Exception {
+        final List<String> lines = new ArrayList<>(Files.readAllLines(Path.of(getResourcePath("example_input")), StandardCharsets.UTF_8));
+        lines.add(1, "120 : (1,50.72,€13)");
+        lines.add(4, "81 : (1,53.38,45)");
+        final Path input = Files.writeString(directory.resolve("input"), String.join("\r\n", lines), StandardCharsets.UTF_8);
+        final Path output = directory.resolve("output");
+        final Path errors = directory.resolve("output" + ResumablePacker.ERRORS_SUFFIX);
+        final Path checkpoint = directory.resolve("output" + ResumablePacker.CHECKPOINT_SUFFIX);
+
+        final PackageSolver crashingSolver = new PackageSolver() {
+            private int solved;
+
+            @Override
+            public OptimizedPackage solve(final InboundPackage inboundPackage) {
+                if (++this.solved == 3) {
+                    throw new AssertionError("killed");
+                }
+                return PackerTest.this.packageSolver.solve(inboundPackage);
+            }
+        };
+        final long[] lineOffsets = new long[lines.size()];
+        for (int i = 1; i < lines.size(); i++) {
+            lineOffsets[i] = lineOffsets[i - 1] + lines.get(i - 1).getBytes(StandardCharsets.UTF_8).length + 2;
+        }
+        final String firstError = "2\t" + lineOffsets[1] + "\tPackerValidationException: Invalid weight for package: 120";
+
+        assertThrowsExactly(AssertionError.class, () -> ResumablePacker.newInstance(this.inputParser, crashingSolver, PackerMetrics.noop(), 2)
+                .pack(input, output));
+        assertEquals(new ResumablePacker.Checkpoint(lineOffsets[2], 2, 2, firstError.length() + 1), ResumablePacker.Checkpoint.read(checkpoint));
+
+        final ResumablePacker.Result result = ResumablePacker.newInstance(PackerMetrics.noop(), 2).pack(input, output);
+
+        final String[] expectedOutput = loadResource("example_output").split("\n");
+        assertEquals(new ResumablePacker.Result(4, 1, 2), result);
+        assertEquals(String.join("\n", expectedOutput[0], "", expectedOutput[1], expectedOutput[2], "", expectedOutput[3]), Files.readString(output));
+        final List<String> errorLines = Files.readAllLines(errors);
+        assertEquals(2, errorLines.size());
+        assertEquals(firstError, errorLines.get(0));
+        assertTrue(errorLines.get(1).startsWith("5\t" + lineOffsets[4] + "\tPackerValidationException: "), errorLines.get(1));
+        assertTrue(Files.notExists(checkpoint));
+    }
+
+    @Test
+    void multiFilePack_Directory_WritesExpectedOutputPerFile(@TempDir final Path directory) throws Exception {
+        final Path inputs = Files.createDirectory(directory.resolve("inputs"));
+        final Path outputs = directory.resolve("outputs");
+        final List<String> names = List.of("example", "1", "2", "3", "4", "5", "6");
+        long lines = 0;
+        for (final String name : names) {
+            final String resource = name.equals("example") ? "example_input" : "input" + name;
+            lines += Files.readAllLines(Files.copy(Path.of(getResourcePath(resource)), inputs.resolve(name + ".txt"))).size();
+        }
+        Files.copy(Path.of(getResourcePath("invalid_input1")), inputs.resolve("invalid.txt"));
+        Files.writeString(inputs.resolve("skipped.csv"), "not a package");
+        Files.createFile(inputs.resolve("empty.txt"));
+        final List<String> exampleLines = Files.readAllLines(Path.of(getResourcePath("example_input")), StandardCharsets.UTF_8);
+        final int repeats = 50;
+        Files.write(inputs.resolve("repeated.txt"), Collections.nCopies(repeats, String.join("\n", exampleLines)));
+        lines += (long) repeats * exampleLines.size();
+
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final MultiFilePacker.Result result = MultiFilePacker.newInstance(pool, 64, PackerMetrics.noop()).pack(inputs, "*.txt", outputs);
+
+            for (final String name : names) {
+                final String expected = loadResource(name.equals("example") ? "example_output" : "output" + name);
+                assertEquals(expected, Files.readString(outputs.resolve(name + ".txt")), name);
+            }
+            assertEquals("", Files.readString(outputs.resolve("empty.txt")));
+            assertEquals(String.join("\n", Collections.nCopies(repeats, loadResource("example_output"))),
+                    Files.readString(outputs.resolve("repeated.txt")));
+            assertEquals(10, result.files());
+            assertEquals(lines, result.lines());
+            assertEquals(List.of(inputs.resolve("invalid.txt")), List.copyOf(result.failures().keySet()));
+            assertEquals(PackerValidationException.class, result.failures().get(inputs.resolve("invalid.txt")).getClass());
+            assertTrue(Files.notExists(outputs.resolve("invalid.txt")));
+            assertTrue(Files.notExists(outputs.resolve("skipped.csv")));
+            assertTrue(result.linesPerSecond() > 0 && result.megabytesPerSecond() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void processor_PublishedPackages_EmitsOptimizedPackagesInOrder() throws Exception {
+        final List<String> lines = Files.readAllLines(Path.of(getResourcePath("example_input")), StandardCharsets.UTF_8);
+        final List<String> output = new ArrayList<>();
+
+        final SubmissionPublisher<InboundPackage> publisher = new SubmissionPublisher<>();
+        final PackageSolverProcessor processor = PackageSolverProcessor.newInstance(this.packageSolver, ForkJoinPool.commonPool(), 2);
+        publisher.subscribe(processor);
+        final CompletableFuture<Void> consumed = processor.consume(optimizedPackage -> output.add(optimizedPackage.toText()));
+
+        lines.stream().map(this.inputParser::parse).forEach(publisher::submit);
+        publisher.close();
+
+        consumed.get(10, TimeUnit.SECONDS);
+
+        assertEquals(loadResource("example_output"), String.join("\n", output));
+    }
+
+    @Test
+    void processor_FailingPackage_CancelsUpstreamAndClosesWithCause() throws Exception {
+        final PackerValidationException failure = new PackerValidationException("Unsolvable package");
+        final PackageSolver failingSolver = inboundPackage -> {
+            if (inboundPackage.weightLimit() == 8) {
+                throw failure;
+            }
+            return this.packageSolver.solve(inboundPackage);
+        };
+        final List<String> output = new ArrayList<>();
+
+        try (final SubmissionPublisher<InboundPackage> publisher = new SubmissionPublisher<>()) {
+            final PackageSolverProcessor processor = PackageSolverProcessor.newInstance(failingSolver, ForkJoinPool.commonPool(), 1);
+            publisher.subscribe(processor);
+            final CompletableFuture<Void> consumed = processor.consume(optimizedPackage -> output.add(optimizedPackage.toText()));
+
+            Files.readAllLines(Path.of(getResourcePath("example_input")), StandardCharsets.UTF_8).stream()
+                    .map(this.inputParser::parse)
+                    .forEach(publisher::submit);
+
+            final ExecutionException exception = assertThrowsExactly(ExecutionException.class, () -> consumed.get(10, TimeUnit.SECONDS));
+            assertEquals(failure, exception.getCause());
+            assertEquals(failure, processor.getClosedException());
+            assertEquals(List.of("4"), output);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (publisher.hasSubscribers() && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertFalse(publisher.hasSubscribers());
+        }
+    }
+
+    @Test
+    void solve_ReindexedAndPermutedPackages_ReturnsCachedResultWithCallerIndices() {
+        final CachingSolver cachingSolver = CachingSolver.newInstance(this.packageSolver, 8);
+        final InboundPackage inboundPackage = this.inputParser.parse("56 : (1,19.36,€79) (2,48.77,€79) (3,6.76,€64)");
+        final InboundPackage reindexedPackage = this.inputParser.parse("56 : (7,19.36,€79) (8,48.77,€79) (9,6.76,€64)");
+        final InboundPackage permutedPackage = this.inputParser.parse("56 : (4,6.76,€64) (5,48.77,€79) (6,19.36,€79)");
+
+        assertEquals("1,3", cachingSolver.solve(inboundPackage).toText());
+        assertEquals("7,9", cachingSolver.solve(reindexedPackage).toText());
+        assertEquals("4,6", cachingSolver.solve(permutedPackage).toText());
+        assertEquals(new CachingSolver.Stats(2, 1, 0, 1), cachingSolver.stats());
+    }
+
+    @Test
+    void solve_TiedItemsInDifferentOrders_ReturnsSameAsDelegate() {
+        final PackageSolver knapsackSolver = KnapsackSolver.getInstance();
+        final CachingSolver cachingSolver = CachingSolver.newInstance(knapsackSolver, 64);
+
+        for (final String line : List.of("10 : (1,10,€10) (2,4,€4) (3,6,€6)", "10 : (1,4,€4) (2,10,€10) (3,6,€6)",
+                "10 : (1,6,€6) (2,4,€4) (3,10,€10)", "10 : (1,10,€10) (2,4,€4) (3,6,€6)")) {
+            final InboundPackage inboundPackage = this.inputParser.parse(line);
+            assertEquals(knapsackSolver.solve(inboundPackage), cachingSolver.solve(inboundPackage), line);
+        }
+        assertEquals("1", cachingSolver.solve(this.inputParser.parse("10 : (1,10,€10) (2,4,€4) (3,6,€6)")).toText());
+        assertEquals(new CachingSolver.Stats(2, 3, 0, 3), cachingSolver.stats());
+    }
+
 
     public static Stream<Arguments> invalidDataAndExceptionTestCaseInputProvider() {
 
@@ -153,6 +833,12 @@ class PackerTest {
         );
     }
 
+    public static Stream<Arguments> solverTypeAndExpectedOutputTestCaseInputProvider() {
+        return Arrays.stream(SolverType.values())
+                .flatMap(solverType -> validInputAndExpectedOutputTestCaseInputProvider()
+                        .map(arguments -> Arguments.of(solverType, arguments.get()[0], arguments.get()[1])));
+    }
+
     public static Stream<Arguments> invalidInputThenThrowAPIExceptionTestCaseInputProvider() {
         final String invalidInput1 = getResourcePath("invalid_input1");
         final String invalidInput2 = getResourcePath("invalid_input2");
@@ -170,6 +856,25 @@ class PackerTest {
         );
     }
 
+    private static InboundPackage randomPackage(final Random random) {
+        final int itemCount = 1 + random.nextInt(15);
+        final List<Item> items = new ArrayList<>(itemCount);
+        for (int index = 1; index <= itemCount; index++) {
+            final BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(4000), random.nextInt(3));
+            final BigDecimal cost = BigDecimal.valueOf(1 + random.nextInt(20));
+            items.add(new Item(index, weight, cost));
+        }
+        return new InboundPackage(1 + random.nextInt(100), items);
+    }
+
+    private static BigDecimal totalCost(final OptimizedPackage optimizedPackage) {
+        return optimizedPackage.items().stream().map(Item::cost).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static BigDecimal totalWeight(final OptimizedPackage optimizedPackage) {
+        return optimizedPackage.items().stream().map(Item::weight).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     private static String getResourcePath(final String resource) {
         return Objects.requireNonNull(PackerTest.class.getClassLoader().getResource(resource)).getPath();
     }